@@ -0,0 +1,177 @@
+package com.codesoom.assignment.benchmark;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.grpc.proto.BatchGetProductsRequest;
+import com.codesoom.assignment.grpc.proto.GetProductRequest;
+import com.codesoom.assignment.grpc.proto.ProductReadServiceGrpc;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * 실행 중인 서버에 같은 Product id를 REST(HTTP/1.1, JSON)와 gRPC(HTTP/2, Protobuf)로 조회해서
+ * 처리량과 지연 시간 분포를 비교합니다. 두 경로 모두 응답을 객체로 읽는 시간까지 포함합니다.
+ *
+ * <pre>
+ * ./gradlew productReadBenchmark -PbenchmarkRequests=100000 -PbenchmarkConcurrency=32
+ * </pre>
+ */
+public class ProductReadBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final String httpUrl;
+
+    private final int requests;
+
+    private final int concurrency;
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ProductReadServiceGrpc.ProductReadServiceBlockingStub stub;
+
+    private final long[] ids;
+
+    ProductReadBenchmark(String httpUrl, ManagedChannel channel, int requests, int concurrency)
+            throws IOException, InterruptedException {
+        this.httpUrl = httpUrl;
+        this.requests = requests;
+        this.concurrency = concurrency;
+        this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        this.stub = ProductReadServiceGrpc.newBlockingStub(channel);
+        this.ids = Arrays.stream(objectMapper.readValue(get("/products"), Product[].class))
+                .mapToLong(Product::getId)
+                .toArray();
+        if (ids.length == 0) {
+            throw new IllegalStateException("No products to read. Seed the server before running the benchmark.");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String httpUrl = args[0];
+        String grpcTarget = args[1];
+        int requests = Integer.parseInt(args[2]);
+        int concurrency = Integer.parseInt(args[3]);
+
+        ManagedChannel channel = ManagedChannelBuilder.forTarget(grpcTarget).usePlaintext().build();
+        try {
+            new ProductReadBenchmark(httpUrl, channel, requests, concurrency).run();
+        } finally {
+            channel.shutdownNow();
+        }
+    }
+
+    void run() throws Exception {
+        System.out.printf("%d products, %d requests, %d concurrent callers%n", ids.length, requests, concurrency);
+
+        Call rest = id -> objectMapper.readValue(get("/products/" + id), Product.class);
+        Call grpc = id -> stub.getProduct(GetProductRequest.newBuilder().setId(id).build());
+        Call grpcBatch = id -> stub.batchGetProducts(BatchGetProductsRequest.newBuilder()
+                .addAllIds(randomIds(BATCH_SIZE))
+                .build());
+
+        // JIT과 커넥션을 먼저 데운 뒤 측정합니다.
+        measure(rest, requests / 10);
+        measure(grpc, requests / 10);
+        measure(grpcBatch, requests / 10 / BATCH_SIZE);
+
+        print("REST GET /products/{id}", measure(rest, requests), 1);
+        print("gRPC GetProduct", measure(grpc, requests), 1);
+        print("gRPC BatchGetProducts x" + BATCH_SIZE, measure(grpcBatch, requests / BATCH_SIZE), BATCH_SIZE);
+    }
+
+    private Result measure(Call call, int count) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            long startedAt = System.nanoTime();
+            for (int caller = 0; caller < concurrency; caller++) {
+                int calls = count / concurrency + (caller < count % concurrency ? 1 : 0);
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[calls];
+                    for (int i = 0; i < calls; i++) {
+                        long callStartedAt = System.nanoTime();
+                        call.invoke(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+                        latencies[i] = System.nanoTime() - callStartedAt;
+                    }
+                    return latencies;
+                }));
+            }
+
+            List<long[]> latencies = new ArrayList<>();
+            for (Future<long[]> future : futures) {
+                latencies.add(future.get());
+            }
+            return new Result(System.nanoTime() - startedAt,
+                    latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void print(String name, Result result, int productsPerCall) {
+        double seconds = result.elapsedNanos / 1e9;
+        System.out.printf("%-32s %10.0f products/s  p50 %7.2f ms  p99 %7.2f ms  max %7.2f ms%n",
+                name,
+                result.latencies.length * productsPerCall / seconds,
+                result.percentile(0.50) / 1e6,
+                result.percentile(0.99) / 1e6,
+                result.percentile(1.0) / 1e6);
+    }
+
+    private byte[] get(String path) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(URI.create(httpUrl + path)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private List<Long> randomIds(int count) {
+        return ThreadLocalRandom.current().ints(count, 0, ids.length)
+                .mapToObj(index -> ids[index])
+                .collect(Collectors.toList());
+    }
+
+    @FunctionalInterface
+    private interface Call {
+
+        void invoke(long id) throws Exception;
+    }
+
+    private static class Result {
+
+        private final long elapsedNanos;
+
+        private final long[] latencies;
+
+        Result(long elapsedNanos, long[] latencies) {
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+        }
+
+        long percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            return latencies[Math.max(0, (int) Math.ceil(percentile * latencies.length) - 1)];
+        }
+    }
+}
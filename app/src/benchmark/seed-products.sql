@@ -0,0 +1,10 @@
+-- 성능 측정용 H2 파일을 만듭니다. 스키마는 Flyway 마이그레이션을 모두 차례로 실행해 만들므로, 마이그레이션을 추가하면 여기에도 추가합니다.
+-- Flyway 기록은 남기지 않으므로 production 프로필은 처음 시작할 때 version 0을 baseline으로 잡고 마이그레이션을 다시 적용합니다.
+-- 이미 있는 테이블과 컬럼은 건너뛰지만 tenant 인덱스는 다시 만들므로, 첫 번째 측정은 더 오래 걸립니다.
+RUNSCRIPT FROM 'src/main/resources/db/migration/V1__create_product.sql';
+RUNSCRIPT FROM 'src/main/resources/db/migration/V2__add_tenant.sql';
+RUNSCRIPT FROM 'src/main/resources/db/migration/V3__create_price_history.sql';
+
+INSERT INTO product (name, maker, price, image, updated_at)
+SELECT '장난감 ' || x, '메이커 ' || MOD(x, 100), MOD(x * 37, 100000), 'http://localhost:8080/toys/' || x, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, ${rows});
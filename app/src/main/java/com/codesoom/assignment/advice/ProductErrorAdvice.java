@@ -1,13 +1,23 @@
 package com.codesoom.assignment.advice;
 
 import com.codesoom.assignment.dto.ErrorResponse;
+import com.codesoom.assignment.exception.ExportJobNotFoundException;
+import com.codesoom.assignment.exception.PriceHistoryNotFoundException;
 import com.codesoom.assignment.exception.ProductNotFoundException;
+import com.codesoom.assignment.exception.RequestBodyTooLargeException;
+import com.codesoom.assignment.exception.TenantQuotaExceededException;
+import com.codesoom.assignment.exception.UnknownTenantException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.util.stream.Collectors;
+
 @ControllerAdvice
 public class ProductErrorAdvice {
 
@@ -17,4 +27,63 @@ public class ProductErrorAdvice {
     public ErrorResponse handleNotFound(ProductNotFoundException ex) {
         return new ErrorResponse(ex.getMessage());
     }
+
+    @ResponseBody
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(ExportJobNotFoundException.class)
+    public ErrorResponse handleExportJobNotFound(ExportJobNotFoundException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
+
+    @ResponseBody
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(PriceHistoryNotFoundException.class)
+    public ErrorResponse handlePriceHistoryNotFound(PriceHistoryNotFoundException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
+
+    @ResponseBody
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ErrorResponse handleInvalid(MethodArgumentNotValidException ex) {
+        return new ErrorResponse(ex.getBindingResult().getFieldErrors().stream()
+                .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                .sorted()
+                .collect(Collectors.joining(", ")));
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleNotReadable(HttpMessageNotReadableException ex) {
+        // chunked 본문은 Jackson이 읽는 도중에 제한을 넘기 때문에 감싸진 원인을 확인합니다.
+        Throwable cause = ex.getMostSpecificCause();
+        if (cause instanceof RequestBodyTooLargeException) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(handleTooLarge((RequestBodyTooLargeException) cause));
+        }
+        return ResponseEntity.badRequest().body(new ErrorResponse("Malformed request body"));
+    }
+
+    @ResponseBody
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    @ExceptionHandler(RequestBodyTooLargeException.class)
+    public ErrorResponse handleTooLarge(RequestBodyTooLargeException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
+
+    @ResponseBody
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(UnknownTenantException.class)
+    public ErrorResponse handleUnknownTenant(UnknownTenantException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
+
+    /**
+     * 커넥션을 얻지 못하면 트랜잭션을 시작하지 못한 예외의 원인으로 전달되어도 같은 응답을 만듭니다.
+     */
+    @ResponseBody
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler(TenantQuotaExceededException.class)
+    public ErrorResponse handleTenantQuotaExceeded(TenantQuotaExceededException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
 }
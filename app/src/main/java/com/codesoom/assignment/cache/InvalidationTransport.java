@@ -0,0 +1,11 @@
+package com.codesoom.assignment.cache;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public interface InvalidationTransport {
+
+    void publish(Collection<Long> productIds);
+
+    void subscribe(Consumer<Collection<Long>> listener);
+}
@@ -0,0 +1,45 @@
+package com.codesoom.assignment.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 같은 JVM 안의 다른 노드에 바로 전달합니다. {@link MulticastInvalidationTransport}처럼 자신이 보낸 id는 자신에게
+ * 전달하지 않으므로, 노드가 하나뿐이면 아무것도 하지 않습니다. {@link #join()}으로 같은 채널에 노드를 추가합니다.
+ */
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private final List<LoopbackInvalidationTransport> nodes;
+
+    private final List<Consumer<Collection<Long>>> listeners = new CopyOnWriteArrayList<>();
+
+    public LoopbackInvalidationTransport() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private LoopbackInvalidationTransport(List<LoopbackInvalidationTransport> nodes) {
+        this.nodes = nodes;
+        nodes.add(this);
+    }
+
+    /**
+     * 이 transport와 같은 채널을 사용하는 다른 노드의 transport를 만듭니다.
+     */
+    public LoopbackInvalidationTransport join() {
+        return new LoopbackInvalidationTransport(nodes);
+    }
+
+    @Override
+    public void publish(Collection<Long> productIds) {
+        nodes.stream()
+                .filter(node -> node != this)
+                .forEach(node -> node.listeners.forEach(listener -> listener.accept(productIds)));
+    }
+
+    @Override
+    public void subscribe(Consumer<Collection<Long>> listener) {
+        listeners.add(listener);
+    }
+}
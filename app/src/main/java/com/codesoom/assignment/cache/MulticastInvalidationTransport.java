@@ -0,0 +1,127 @@
+package com.codesoom.assignment.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * UDP multicast로 다른 노드에 무효화할 Product id를 보냅니다.
+ * 자신이 보낸 메시지는 무시하고, id가 많으면 여러 datagram으로 나누어 보냅니다.
+ */
+public class MulticastInvalidationTransport implements InvalidationTransport, Closeable {
+
+    static final int MAGIC = 0x50524f44;
+
+    static final int MAX_IDS_PER_PACKET = 160;
+
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES * 2 + Integer.BYTES;
+
+    private final UUID nodeId = UUID.randomUUID();
+
+    private final List<Consumer<Collection<Long>>> listeners = new CopyOnWriteArrayList<>();
+
+    private final InetSocketAddress group;
+
+    private final MulticastSocket socket;
+
+    private final Thread receiver;
+
+    public MulticastInvalidationTransport(String address, int port) {
+        try {
+            this.group = new InetSocketAddress(InetAddress.getByName(address), port);
+            this.socket = new MulticastSocket(port);
+            this.socket.joinGroup(group, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.receiver = new Thread(this::receive, "invalidation-receiver");
+        this.receiver.setDaemon(true);
+        this.receiver.start();
+    }
+
+    @Override
+    public void publish(Collection<Long> productIds) {
+        for (byte[] packet : encode(nodeId, productIds)) {
+            try {
+                socket.send(new DatagramPacket(packet, packet.length, group));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Collection<Long>> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        socket.close();
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[HEADER_SIZE + MAX_IDS_PER_PACKET * Long.BYTES];
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+            } catch (IOException e) {
+                continue;
+            }
+
+            List<Long> productIds = decode(nodeId, ByteBuffer.wrap(packet.getData(), 0, packet.getLength()));
+            if (!productIds.isEmpty()) {
+                listeners.forEach(listener -> listener.accept(productIds));
+            }
+        }
+    }
+
+    static List<byte[]> encode(UUID sender, Collection<Long> productIds) {
+        List<byte[]> packets = new ArrayList<>();
+        List<Long> ids = new ArrayList<>(productIds);
+
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_PACKET) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_PACKET, ids.size()));
+
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + chunk.size() * Long.BYTES);
+            buffer.putInt(MAGIC)
+                    .putLong(sender.getMostSignificantBits())
+                    .putLong(sender.getLeastSignificantBits())
+                    .putInt(chunk.size());
+            chunk.forEach(buffer::putLong);
+            packets.add(buffer.array());
+        }
+        return packets;
+    }
+
+    static List<Long> decode(UUID receiver, ByteBuffer buffer) {
+        List<Long> productIds = new ArrayList<>();
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            return productIds;
+        }
+
+        UUID sender = new UUID(buffer.getLong(), buffer.getLong());
+        if (sender.equals(receiver)) {
+            return productIds;
+        }
+
+        int count = Math.min(buffer.getInt(), buffer.remaining() / Long.BYTES);
+        for (int i = 0; i < count; i++) {
+            productIds.add(buffer.getLong());
+        }
+        return productIds;
+    }
+}
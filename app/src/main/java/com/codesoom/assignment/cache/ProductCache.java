@@ -0,0 +1,8 @@
+package com.codesoom.assignment.cache;
+
+import java.util.Collection;
+
+public interface ProductCache {
+
+    void evict(Collection<Long> productIds);
+}
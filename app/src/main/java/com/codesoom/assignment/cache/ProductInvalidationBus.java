@@ -0,0 +1,76 @@
+package com.codesoom.assignment.cache;
+
+import com.codesoom.assignment.event.PricesFlushedEvent;
+import com.codesoom.assignment.event.ProductChangedEvent;
+import com.codesoom.assignment.service.PriceUpdateBuffer;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 커밋된 Product 변경을 id 단위로 모아 다른 노드에 보내고, 받은 id는 이 노드의 캐시에서 제거합니다.
+ * 대량 변경 중에도 같은 id는 한 번만 보내도록 flush 주기 동안 모아둡니다.
+ * 가격이 아직 {@link PriceUpdateBuffer}에 있는 id는 다른 노드가 DB에서 이전 가격을 읽지 않도록 버퍼가 반영된 뒤에 보냅니다.
+ * 이 노드의 캐시는 {@link ProductChangedEvent}로 직접 갱신하므로, 자신이 보낸 id는 다시 받지 않습니다.
+ */
+@Component
+public class ProductInvalidationBus {
+
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+
+    private final InvalidationTransport transport;
+
+    private final List<ProductCache> caches;
+
+    private final PriceUpdateBuffer priceUpdateBuffer;
+
+    public ProductInvalidationBus(InvalidationTransport transport, List<ProductCache> caches,
+                                  PriceUpdateBuffer priceUpdateBuffer) {
+        this.transport = transport;
+        this.caches = caches;
+        this.priceUpdateBuffer = priceUpdateBuffer;
+        transport.subscribe(this::onInvalidation);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.getProductId();
+        if (priceUpdateBuffer.pendingPrice(productId) != null) {
+            return;
+        }
+        pendingIds.add(productId);
+    }
+
+    @EventListener
+    public void onPricesFlushed(PricesFlushedEvent event) {
+        pendingIds.addAll(event.getProductIds());
+    }
+
+    @Scheduled(fixedDelayString = "${product.invalidation.flush-interval-ms:50}")
+    public int flush() {
+        List<Long> productIds = new ArrayList<>();
+        Iterator<Long> iterator = pendingIds.iterator();
+        while (iterator.hasNext()) {
+            productIds.add(iterator.next());
+            iterator.remove();
+        }
+
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        transport.publish(productIds);
+        return productIds.size();
+    }
+
+    private void onInvalidation(Collection<Long> productIds) {
+        caches.forEach(cache -> cache.evict(productIds));
+    }
+}
@@ -0,0 +1,31 @@
+package com.codesoom.assignment.config;
+
+import com.codesoom.assignment.grpc.GrpcTenantInterceptor;
+import com.codesoom.assignment.grpc.ProductGrpcServer;
+import com.codesoom.assignment.grpc.ProductGrpcService;
+import com.codesoom.assignment.service.ProductService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "product.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcConfig {
+
+    @Bean
+    public ProductGrpcServer productGrpcServer(
+            ProductService productService,
+            @Value("${product.tenant.ids:default}") List<String> tenants,
+            @Value("${product.grpc.port:9090}") int port,
+            @Value("${product.grpc.threads:16}") int threads,
+            @Value("${product.grpc.max-batch-size:1000}") int maxBatchSize,
+            @Value("${product.grpc.shutdown-timeout-ms:5000}") long shutdownTimeoutMillis) {
+        return new ProductGrpcServer(port, threads, shutdownTimeoutMillis,
+                new ProductGrpcService(productService, maxBatchSize),
+                new GrpcTenantInterceptor(new LinkedHashSet<>(tenants)));
+    }
+}
@@ -0,0 +1,27 @@
+package com.codesoom.assignment.config;
+
+import com.codesoom.assignment.cache.InvalidationTransport;
+import com.codesoom.assignment.cache.LoopbackInvalidationTransport;
+import com.codesoom.assignment.cache.MulticastInvalidationTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class InvalidationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "product.invalidation.transport", havingValue = "multicast")
+    public InvalidationTransport multicastInvalidationTransport(
+            @Value("${product.invalidation.multicast.address:230.0.0.1}") String address,
+            @Value("${product.invalidation.multicast.port:4446}") int port) {
+        return new MulticastInvalidationTransport(address, port);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "product.invalidation.transport", havingValue = "loopback", matchIfMissing = true)
+    public InvalidationTransport loopbackInvalidationTransport() {
+        return new LoopbackInvalidationTransport();
+    }
+}
@@ -0,0 +1,33 @@
+package com.codesoom.assignment.config;
+
+import com.codesoom.assignment.request.RequestBodyLimitFilter;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RequestParsingConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestBodyLimitFilter> requestBodyLimitFilter(
+            @Value("${product.request.max-body-bytes:16384}") long maxBodyBytes) {
+        return new FilterRegistrationBean<>(new RequestBodyLimitFilter(maxBodyBytes));
+    }
+
+    /**
+     * 잘못된 JSON은 바인딩을 끝내기 전에 파서 단계에서 거부합니다.
+     * 웹 클라이언트가 보내는 imageUrl 같은 필드가 있으므로 알 수 없는 필드는 계속 무시합니다.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer strictRequestParsing() {
+        return builder -> builder
+                .featuresToEnable(
+                        JsonParser.Feature.STRICT_DUPLICATE_DETECTION,
+                        DeserializationFeature.FAIL_ON_TRAILING_TOKENS)
+                .featuresToDisable(DeserializationFeature.ACCEPT_FLOAT_AS_INT);
+    }
+}
@@ -0,0 +1,55 @@
+package com.codesoom.assignment.config;
+
+import com.codesoom.assignment.tenant.TenantInterceptor;
+import com.codesoom.assignment.tenant.TenantQuota;
+import com.codesoom.assignment.tenant.TenantQuotaDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Configuration
+public class TenantConfig implements WebMvcConfigurer {
+
+    private final Set<String> tenants;
+
+    private final MeterRegistry meterRegistry;
+
+    public TenantConfig(@Value("${product.tenant.ids:default}") List<String> tenants, MeterRegistry meterRegistry) {
+        this.tenants = new LinkedHashSet<>(tenants);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public static TenantQuota tenantQuota(@Value("${product.tenant.ids:default}") List<String> tenants,
+                                          @Value("${product.tenant.max-connections:4}") int maxConnections,
+                                          @Value("${product.tenant.acquire-timeout-ms:200}") long acquireTimeoutMillis) {
+        return new TenantQuota(tenants, maxConnections, acquireTimeoutMillis);
+    }
+
+    @Bean
+    public static BeanPostProcessor tenantQuotaDataSourcePostProcessor(TenantQuota tenantQuota) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof TenantQuotaDataSource)) {
+                    return new TenantQuotaDataSource((DataSource) bean, tenantQuota);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TenantInterceptor(tenants, meterRegistry));
+    }
+}
@@ -0,0 +1,49 @@
+package com.codesoom.assignment.controller;
+
+import com.codesoom.assignment.dto.PriceChange;
+import com.codesoom.assignment.exception.PriceHistoryNotFoundException;
+import com.codesoom.assignment.query.QueryBudget;
+import com.codesoom.assignment.service.PriceHistory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/products")
+public class PriceHistoryController {
+
+    private final PriceHistory priceHistory;
+
+    public PriceHistoryController(PriceHistory priceHistory) {
+        this.priceHistory = priceHistory;
+    }
+
+    /**
+     * 기간과 겹치는 구간 수에 따라 나누어 읽는 횟수가 달라지므로 SQL 문 개수를 제한하지 않습니다.
+     */
+    @GetMapping("/prices")
+    public List<PriceChange> changes(@RequestParam Instant from, @RequestParam Instant to,
+                                     @RequestParam(defaultValue = "1000") int limit) {
+        return priceHistory.changesBetween(from, to, limit);
+    }
+
+    @GetMapping("{id}/prices")
+    @QueryBudget(1)
+    public List<PriceChange> history(@PathVariable Long id,
+                                     @RequestParam(required = false) Instant from,
+                                     @RequestParam(required = false) Instant to) {
+        return priceHistory.history(id, from == null ? Instant.EPOCH : from, to == null ? Instant.now() : to);
+    }
+
+    @GetMapping("{id}/prices/at")
+    @QueryBudget(1)
+    public PriceChange priceAt(@PathVariable Long id, @RequestParam Instant time) {
+        return priceHistory.priceAt(id, time)
+                .orElseThrow(() -> new PriceHistoryNotFoundException(id));
+    }
+}
@@ -1,54 +1,162 @@
 package com.codesoom.assignment.controller;
 
+import com.codesoom.assignment.domain.ArchivedProduct;
 import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.dto.ExportJob;
+import com.codesoom.assignment.query.QueryBudget;
+import com.codesoom.assignment.service.HotProductTracker;
+import com.codesoom.assignment.service.ProductCatalogSnapshot;
+import com.codesoom.assignment.service.ProductExporter;
 import com.codesoom.assignment.service.ProductService;
+import com.codesoom.assignment.tenant.TenantContext;
+import com.codesoom.assignment.tenant.TenantInterceptor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/products")
 public class ProductController {
 
+    public static final String SNAPSHOT_VERSION_HEADER = "X-Catalog-Version";
+
+    public static final String SNAPSHOT_STALENESS_HEADER = "X-Catalog-Staleness-Millis";
+
     private final ProductService productService;
 
-    public ProductController(ProductService productsService) {
+    private final ProductCatalogSnapshot catalogSnapshot;
+
+    private final ProductExporter productExporter;
+
+    private final HotProductTracker hotProductTracker;
+
+    public ProductController(ProductService productsService, ProductCatalogSnapshot catalogSnapshot,
+                             ProductExporter productExporter, HotProductTracker hotProductTracker) {
         this.productService = productsService;
+        this.catalogSnapshot = catalogSnapshot;
+        this.productExporter = productExporter;
+        this.hotProductTracker = hotProductTracker;
     }
 
     @GetMapping
-    public List<Product> list() {
-        return productService.getProducts();
+    @QueryBudget(1)
+    public void list(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding,
+                     HttpServletResponse response) throws IOException {
+        ProductCatalogSnapshot.Snapshot snapshot = catalogSnapshot.current();
+        ByteBuffer body = snapshot.getJson();
+        if (acceptsGzip(acceptEncoding)) {
+            body = snapshot.getGzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setContentLength(body.remaining());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING + ", " + TenantInterceptor.TENANT_HEADER);
+        response.setHeader(SNAPSHOT_VERSION_HEADER, String.valueOf(snapshot.getVersion()));
+        response.setHeader(SNAPSHOT_STALENESS_HEADER, String.valueOf(catalogSnapshot.stalenessMillis()));
+
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        while (body.hasRemaining()) {
+            channel.write(body);
+        }
     }
 
     @GetMapping("{id}")
+    @QueryBudget(1)
     public Product detail(@PathVariable Long id) {
-        return productService.getProduct(id);
+        Product product = productService.getProduct(id);
+        hotProductTracker.record(TenantContext.current(), id);
+        return product;
+    }
+
+    @GetMapping("/archive/{id}")
+    @QueryBudget(1)
+    public ArchivedProduct archived(@PathVariable Long id) {
+        return productService.getArchivedProduct(id);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Product create(@RequestBody Product product) {
+    @QueryBudget(1)
+    public Product create(@RequestBody @Validated(Product.Create.class) Product product) {
         return productService.createProduct(product);
     }
 
+    @PostMapping("/export")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ExportJob export() {
+        return productExporter.start();
+    }
+
+    @GetMapping("/export/{id}")
+    @QueryBudget(0)
+    public ExportJob exportJob(@PathVariable String id) {
+        return productExporter.job(id);
+    }
+
     @RequestMapping(path = "/{id}", method = {RequestMethod.PUT, RequestMethod.PATCH})
-    public Product update(@PathVariable Long id, @RequestBody Product product) {
+    @QueryBudget(1)
+    public Product update(@PathVariable Long id, @RequestBody @Valid Product product) {
         return productService.updateProduct(id, product);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @QueryBudget(1)
     public void delete(@PathVariable Long id) {
         productService.deleteProduct(id);
     }
+
+    /**
+     * Accept-Encoding에서 gzip 또는 *의 q 값이 0보다 큰지 확인합니다. gzip이 직접 적혀 있으면 *보다 우선합니다.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        Double wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                return quality > 0;
+            }
+            if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
 }
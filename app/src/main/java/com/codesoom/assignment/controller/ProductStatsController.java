@@ -0,0 +1,39 @@
+package com.codesoom.assignment.controller;
+
+import com.codesoom.assignment.dto.ProductStats;
+import com.codesoom.assignment.query.QueryBudget;
+import com.codesoom.assignment.service.ProductStatistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/products/stats")
+public class ProductStatsController {
+
+    private final ProductStatistics productStatistics;
+
+    public ProductStatsController(ProductStatistics productStatistics) {
+        this.productStatistics = productStatistics;
+    }
+
+    @GetMapping
+    @QueryBudget(0)
+    public ProductStats summary() {
+        return productStatistics.getSummary();
+    }
+
+    @GetMapping("/makers")
+    @QueryBudget(0)
+    public Map<String, Long> makers() {
+        return productStatistics.getMakerCounts();
+    }
+
+    @GetMapping("/prices")
+    @QueryBudget(0)
+    public Map<Integer, Long> prices() {
+        return productStatistics.getPriceHistogram();
+    }
+}
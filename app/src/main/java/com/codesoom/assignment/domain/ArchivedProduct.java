@@ -0,0 +1,38 @@
+package com.codesoom.assignment.domain;
+
+import com.codesoom.assignment.tenant.TenantContext;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "product_archive")
+public class ArchivedProduct {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String maker;
+
+    private Integer price;
+
+    private String image;
+
+    @JsonIgnore
+    @Column(length = TenantContext.MAX_TENANT_LENGTH, nullable = false)
+    private String tenantId = TenantContext.DEFAULT_TENANT;
+
+    private LocalDateTime deletedAt;
+
+    private LocalDateTime archivedAt;
+}
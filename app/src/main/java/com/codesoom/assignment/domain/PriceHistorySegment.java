@@ -0,0 +1,141 @@
+package com.codesoom.assignment.domain;
+
+import com.codesoom.assignment.dto.PriceChange;
+import com.codesoom.assignment.tenant.TenantContext;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 한 Product의 가격 변경을 시간 순서대로 이어 붙인 구간입니다.
+ * 변경마다 직전 변경과의 시간 차이와 가격 차이만 가변 길이 정수로 저장하므로 보통 한 변경이 3~5바이트를 차지합니다.
+ * 구간이 가득 차면 닫고 새 구간을 시작하며, 닫힌 구간은 다시 쓰지 않습니다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_price_history_product", columnList = "product_id, first_at"),
+        @Index(name = "idx_price_history_window", columnList = "tenant_id, last_at")
+})
+public class PriceHistorySegment {
+
+    public static final int MAX_BYTES = 1024;
+
+    // 시간 차이와 가격 차이를 가장 길게 쓸 때의 크기입니다.
+    private static final int MAX_ENTRY_BYTES = 10 + 5;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long productId;
+
+    @Column(length = TenantContext.MAX_TENANT_LENGTH)
+    private String tenantId;
+
+    private long firstAt;
+
+    private long lastAt;
+
+    private int lastPrice;
+
+    private int entryCount;
+
+    private boolean sealed;
+
+    @Column(length = MAX_BYTES)
+    private byte[] data = new byte[0];
+
+    public PriceHistorySegment(Long productId, String tenantId, long firstAt) {
+        this.productId = productId;
+        this.tenantId = tenantId;
+        this.firstAt = firstAt;
+        this.lastAt = firstAt;
+    }
+
+    /**
+     * 변경을 이어 붙입니다. 구간이 가득 찼다면 닫고 false를 리턴합니다.
+     * 시계가 뒤로 가더라도 시간 순서가 유지되도록 직전 변경보다 이른 시각은 직전 변경 시각으로 기록합니다.
+     */
+    public boolean append(long changedAt, int price) {
+        if (sealed || data.length + MAX_ENTRY_BYTES > MAX_BYTES) {
+            sealed = true;
+            return false;
+        }
+
+        long at = Math.max(changedAt, lastAt);
+        ByteArrayOutputStream output = new ByteArrayOutputStream(MAX_ENTRY_BYTES);
+        writeVarLong(output, at - lastAt);
+        writeVarLong(output, zigZag((long) price - lastPrice));
+
+        byte[] entry = output.toByteArray();
+        data = Arrays.copyOf(data, data.length + entry.length);
+        System.arraycopy(entry, 0, data, data.length - entry.length, entry.length);
+
+        lastAt = at;
+        lastPrice = price;
+        entryCount++;
+        return true;
+    }
+
+    /**
+     * 더 이상 이어 붙이지 않도록 닫습니다.
+     */
+    public void seal() {
+        sealed = true;
+    }
+
+    public List<PriceChange> changes() {
+        List<PriceChange> changes = new ArrayList<>(entryCount);
+        long at = firstAt;
+        long price = 0;
+        ByteBuffer input = ByteBuffer.wrap(data);
+        for (int i = 0; i < entryCount; i++) {
+            at += readVarLong(input);
+            price += unZigZag(readVarLong(input));
+            changes.add(new PriceChange(productId, (int) price, Instant.ofEpochMilli(at)));
+        }
+        return changes;
+    }
+
+    private static long readVarLong(ByteBuffer input) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = input.get();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream output, long value) {
+        while ((value & ~0x7fL) != 0) {
+            output.write((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        output.write((int) value);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
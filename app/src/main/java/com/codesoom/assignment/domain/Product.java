@@ -1,34 +1,96 @@
 package com.codesoom.assignment.domain;
 
+import com.codesoom.assignment.tenant.TenantContext;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.Where;
+import org.hibernate.validator.constraints.URL;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import javax.validation.groups.Default;
+import java.time.LocalDateTime;
 
 @Getter
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_product_tenant", columnList = "tenant_id, id"),
+        @Index(name = "idx_product_maker", columnList = "tenant_id, maker"),
+        @Index(name = "idx_product_price", columnList = "tenant_id, price"),
+        @Index(name = "idx_product_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_product_deleted_at", columnList = "deleted_at")
+})
+@SQLDelete(sql = "UPDATE product SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?")
+@Where(clause = "deleted_at IS NULL")
 public class Product {
 
+    public static final int MAX_NAME_LENGTH = 100;
+
+    public static final int MAX_IMAGE_LENGTH = 255;
+
+    /**
+     * 생성할 때만 필요한 제약 조건 그룹입니다. 수정 요청은 일부 필드만 보낼 수 있으므로 Default 그룹만 검사합니다.
+     */
+    public interface Create extends Default {
+    }
+
+    /**
+     * 보내지 않은 필드(null)는 허용하고, 보낸 값은 공백이 아닌 문자를 하나 이상 포함해야 합니다.
+     */
+    private static final String NOT_BLANK_IF_PRESENT = "(?s).*\\S.*";
+
     @Setter
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Setter
+    @NotBlank(groups = Create.class)
+    @Pattern(regexp = NOT_BLANK_IF_PRESENT, message = "must not be blank")
+    @Size(max = MAX_NAME_LENGTH)
     private String name;
 
+    @NotBlank(groups = Create.class)
+    @Pattern(regexp = NOT_BLANK_IF_PRESENT, message = "must not be blank")
+    @Size(max = MAX_NAME_LENGTH)
     private String maker;
 
+    @NotNull(groups = Create.class)
+    @PositiveOrZero
     private Integer price;
 
+    @URL
+    @Size(max = MAX_IMAGE_LENGTH)
     private String image;
 
+    @Setter
+    @JsonIgnore
+    @Column(length = TenantContext.MAX_TENANT_LENGTH, nullable = false)
+    private String tenantId = TenantContext.DEFAULT_TENANT;
+
+    @JsonIgnore
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+
     @Builder
     public Product(String name, String maker, Integer price, String image) {
         this.name = name;
@@ -36,4 +98,11 @@ public class Product {
         this.price = price;
         this.image = image;
     }
+
+    public Product withPrice(Integer price) {
+        Product product = new Product(name, maker, price, image);
+        product.setId(id);
+        product.setTenantId(tenantId);
+        return product;
+    }
 }
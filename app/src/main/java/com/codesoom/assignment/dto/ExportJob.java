@@ -0,0 +1,41 @@
+package com.codesoom.assignment.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+/**
+ * 백그라운드에서 실행되는 내보내기 작업의 상태입니다. 만든 파일의 서버 경로는 응답에 드러내지 않습니다.
+ */
+@Getter
+public class ExportJob {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+
+    @JsonIgnore
+    private final String tenantId;
+
+    private volatile Status status = Status.RUNNING;
+
+    private volatile ExportResult result;
+
+    private volatile String error;
+
+    public ExportJob(String id, String tenantId) {
+        this.id = id;
+        this.tenantId = tenantId;
+    }
+
+    public void complete(ExportResult result) {
+        this.result = result;
+        this.status = Status.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        this.status = Status.FAILED;
+    }
+}
@@ -0,0 +1,25 @@
+package com.codesoom.assignment.dto;
+
+import lombok.Getter;
+
+@Getter
+public class ExportResult {
+
+    private long rows;
+
+    private int partitions;
+
+    private long bytes;
+
+    private long elapsedMillis;
+
+    private long rowsPerSecond;
+
+    public ExportResult(long rows, int partitions, long bytes, long elapsedMillis) {
+        this.rows = rows;
+        this.partitions = partitions;
+        this.bytes = bytes;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = rows * 1000 / Math.max(elapsedMillis, 1);
+    }
+}
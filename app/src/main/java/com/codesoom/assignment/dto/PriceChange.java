@@ -0,0 +1,23 @@
+package com.codesoom.assignment.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@EqualsAndHashCode
+public class PriceChange {
+
+    private Long productId;
+
+    private Integer price;
+
+    private Instant changedAt;
+
+    public PriceChange(Long productId, Integer price, Instant changedAt) {
+        this.productId = productId;
+        this.price = price;
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.codesoom.assignment.dto;
+
+import lombok.Getter;
+
+@Getter
+public class ProductStats {
+
+    private long count;
+
+    private Integer minPrice;
+
+    private Integer maxPrice;
+
+    private Double averagePrice;
+
+    public ProductStats(long count, Integer minPrice, Integer maxPrice, Double averagePrice) {
+        this.count = count;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.averagePrice = averagePrice;
+    }
+}
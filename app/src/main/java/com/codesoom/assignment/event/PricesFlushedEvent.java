@@ -0,0 +1,18 @@
+package com.codesoom.assignment.event;
+
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * 버퍼에 모아둔 가격이 DB에 반영된 Product의 id입니다.
+ */
+@Getter
+public class PricesFlushedEvent {
+
+    private final Collection<Long> productIds;
+
+    public PricesFlushedEvent(Collection<Long> productIds) {
+        this.productIds = productIds;
+    }
+}
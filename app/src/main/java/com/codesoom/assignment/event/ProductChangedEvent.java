@@ -0,0 +1,44 @@
+package com.codesoom.assignment.event;
+
+import com.codesoom.assignment.domain.Product;
+import lombok.Getter;
+
+@Getter
+public class ProductChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Long productId;
+
+    private final Type type;
+
+    private final Product before;
+
+    private final Product after;
+
+    public ProductChangedEvent(Long productId, Type type) {
+        this(productId, type, null, null);
+    }
+
+    public ProductChangedEvent(Long productId, Type type, Product before, Product after) {
+        this.productId = productId;
+        this.type = type;
+        this.before = before;
+        this.after = after;
+    }
+
+    /**
+     * 변경된 Product의 tenant입니다. 전후 값이 모두 없으면 null입니다.
+     */
+    public String getTenantId() {
+        if (after != null) {
+            return after.getTenantId();
+        }
+        if (before != null) {
+            return before.getTenantId();
+        }
+        return null;
+    }
+}
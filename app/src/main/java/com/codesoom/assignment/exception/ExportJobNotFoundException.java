@@ -0,0 +1,8 @@
+package com.codesoom.assignment.exception;
+
+public class ExportJobNotFoundException extends RuntimeException {
+
+    public ExportJobNotFoundException(String id) {
+        super("Export job not found: " + id);
+    }
+}
@@ -0,0 +1,8 @@
+package com.codesoom.assignment.exception;
+
+public class PriceHistoryNotFoundException extends RuntimeException {
+
+    public PriceHistoryNotFoundException(Long productId) {
+        super("Price history not found: " + productId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.codesoom.assignment.exception;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
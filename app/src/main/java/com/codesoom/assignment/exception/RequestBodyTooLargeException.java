@@ -0,0 +1,8 @@
+package com.codesoom.assignment.exception;
+
+public class RequestBodyTooLargeException extends RuntimeException {
+
+    public RequestBodyTooLargeException(long maxBytes) {
+        super("Request body exceeds " + maxBytes + " bytes");
+    }
+}
@@ -0,0 +1,8 @@
+package com.codesoom.assignment.exception;
+
+public class TenantQuotaExceededException extends RuntimeException {
+
+    public TenantQuotaExceededException(String tenant) {
+        super("Too many concurrent database connections for tenant: " + tenant);
+    }
+}
@@ -0,0 +1,8 @@
+package com.codesoom.assignment.exception;
+
+public class UnknownTenantException extends RuntimeException {
+
+    public UnknownTenantException(String tenant) {
+        super("Unknown tenant: " + tenant);
+    }
+}
@@ -0,0 +1,46 @@
+package com.codesoom.assignment.grpc;
+
+import com.codesoom.assignment.tenant.TenantContext;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.Set;
+
+/**
+ * {@link #TENANT_KEY} 메타데이터로 tenant를 정해서 gRPC {@link Context}에 담습니다.
+ * gRPC는 한 호출을 여러 스레드에서 처리하므로 ThreadLocal 대신 Context로 전달하고, 서비스가 실행할 때 꺼내 씁니다.
+ */
+public class GrpcTenantInterceptor implements ServerInterceptor {
+
+    public static final Metadata.Key<String> TENANT_KEY =
+            Metadata.Key.of("x-tenant-id", Metadata.ASCII_STRING_MARSHALLER);
+
+    static final Context.Key<String> TENANT = Context.keyWithDefault("tenant", TenantContext.DEFAULT_TENANT);
+
+    private final Set<String> tenants;
+
+    public GrpcTenantInterceptor(Set<String> tenants) {
+        this.tenants = tenants;
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                       ServerCallHandler<Q, R> next) {
+        String tenant = headers.get(TENANT_KEY);
+        if (tenant == null || tenant.isEmpty()) {
+            tenant = TenantContext.DEFAULT_TENANT;
+        }
+        if (!tenants.contains(tenant)) {
+            call.close(Status.INVALID_ARGUMENT.withDescription("Unknown tenant: " + tenant), new Metadata());
+            return new ServerCall.Listener<Q>() {
+            };
+        }
+
+        return Contexts.interceptCall(Context.current().withValue(TENANT, tenant), call, headers, next);
+    }
+}
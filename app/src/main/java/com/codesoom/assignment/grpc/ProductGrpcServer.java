@@ -0,0 +1,110 @@
+package com.codesoom.assignment.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spring MVC와 별도의 포트에서 HTTP/2 gRPC 서버를 실행합니다.
+ * 서비스는 JPA로 블로킹 조회를 하므로 Netty 이벤트 루프가 아닌 고정 크기 스레드 풀에서 실행합니다.
+ * 컨텍스트를 새로 고칠 때가 아니라 ApplicationRunner인 워밍업까지 끝나 ApplicationReadyEvent가 발행될 때 호출을 받기 시작하므로,
+ * HTTP와 마찬가지로 데워진 뒤에만 요청이 들어옵니다.
+ */
+public class ProductGrpcServer implements SmartLifecycle, ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductGrpcServer.class);
+
+    private final int port;
+
+    private final ExecutorService executor;
+
+    private final Server server;
+
+    private final long shutdownTimeoutMillis;
+
+    private volatile boolean running;
+
+    public ProductGrpcServer(int port, int threads, long shutdownTimeoutMillis, BindableService service,
+                             GrpcTenantInterceptor tenantInterceptor) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.port = port;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "grpc-product-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = NettyServerBuilder.forPort(port)
+                .executor(executor)
+                .addService(ServerInterceptors.intercept(service, tenantInterceptor))
+                .build();
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        start();
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return false;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        running = true;
+        log.info("gRPC server started on port {}", getPort());
+    }
+
+    /**
+     * 새 호출은 받지 않고, 진행 중인 호출은 제한 시간까지 기다린 뒤 끊습니다.
+     */
+    @Override
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            running = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 0번 포트로 실행했다면 실제로 열린 포트를 리턴합니다.
+     */
+    public int getPort() {
+        return running ? server.getPort() : port;
+    }
+}
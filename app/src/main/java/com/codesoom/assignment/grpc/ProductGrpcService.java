@@ -0,0 +1,174 @@
+package com.codesoom.assignment.grpc;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.exception.ProductNotFoundException;
+import com.codesoom.assignment.exception.TenantQuotaExceededException;
+import com.codesoom.assignment.grpc.proto.BatchGetProductsRequest;
+import com.codesoom.assignment.grpc.proto.BatchGetProductsResponse;
+import com.codesoom.assignment.grpc.proto.GetProductRequest;
+import com.codesoom.assignment.grpc.proto.ListProductsRequest;
+import com.codesoom.assignment.grpc.proto.ProductMessage;
+import com.codesoom.assignment.grpc.proto.ProductReadServiceGrpc;
+import com.codesoom.assignment.service.ProductService;
+import com.codesoom.assignment.tenant.TenantContext;
+import com.google.protobuf.Int32Value;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * ProductService를 gRPC로 노출합니다. 예외는 REST 응답과 같은 의미의 gRPC 상태로 바꿉니다.
+ */
+public class ProductGrpcService extends ProductReadServiceGrpc.ProductReadServiceImplBase {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductGrpcService.class);
+
+    private final ProductService productService;
+
+    private final int maxBatchSize;
+
+    public ProductGrpcService(ProductService productService, int maxBatchSize) {
+        this.productService = productService;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public void getProduct(GetProductRequest request, StreamObserver<ProductMessage> responseObserver) {
+        respond(responseObserver, () -> toMessage(productService.getProduct(request.getId())));
+    }
+
+    @Override
+    public void batchGetProducts(BatchGetProductsRequest request,
+                                 StreamObserver<BatchGetProductsResponse> responseObserver) {
+        Set<Long> ids = new LinkedHashSet<>(request.getIdsList());
+        if (ids.size() > maxBatchSize) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("At most " + maxBatchSize + " ids are allowed: " + ids.size())
+                    .asRuntimeException());
+            return;
+        }
+
+        respond(responseObserver, () -> {
+            Map<Long, Product> found = productService.getProductsByIds(ids).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+            BatchGetProductsResponse.Builder response = BatchGetProductsResponse.newBuilder();
+            for (Long id : ids) {
+                Product product = found.get(id);
+                if (product == null) {
+                    response.addMissingIds(id);
+                } else {
+                    response.addProducts(toMessage(product));
+                }
+            }
+            return response.build();
+        });
+    }
+
+    @Override
+    public void listProducts(ListProductsRequest request, StreamObserver<ProductMessage> responseObserver) {
+        String tenant = GrpcTenantInterceptor.TENANT.get();
+
+        // max-batch-size개씩 id 순서로 읽고 클라이언트가 받을 수 있을 때만 보내서, 전체 목록이나 보내지 못한 응답이
+        // 메모리에 쌓이지 않게 합니다. 한 번에 한 페이지만 들고 있습니다.
+        ServerCallStreamObserver<ProductMessage> observer = (ServerCallStreamObserver<ProductMessage>) responseObserver;
+        observer.setOnCancelHandler(() -> {
+        });
+        observer.setOnReadyHandler(new Runnable() {
+
+            private Iterator<Product> page = Collections.emptyIterator();
+
+            private long lastId;
+
+            private boolean lastPage;
+
+            private boolean completed;
+
+            @Override
+            public void run() {
+                try {
+                    while (!completed && !observer.isCancelled()) {
+                        if (!page.hasNext()) {
+                            if (lastPage) {
+                                completed = true;
+                                observer.onCompleted();
+                                return;
+                            }
+                            List<Product> products = TenantContext.call(tenant,
+                                    () -> productService.getProductsAfter(lastId, maxBatchSize));
+                            lastPage = products.size() < maxBatchSize;
+                            page = products.iterator();
+                            continue;
+                        }
+                        if (!observer.isReady()) {
+                            return;
+                        }
+                        Product product = page.next();
+                        lastId = product.getId();
+                        observer.onNext(toMessage(product));
+                    }
+                } catch (RuntimeException e) {
+                    completed = true;
+                    observer.onError(toStatus(e).asRuntimeException());
+                }
+            }
+        });
+    }
+
+    static ProductMessage toMessage(Product product) {
+        ProductMessage.Builder message = ProductMessage.newBuilder().setId(product.getId());
+        if (product.getName() != null) {
+            message.setName(product.getName());
+        }
+        if (product.getMaker() != null) {
+            message.setMaker(product.getMaker());
+        }
+        if (product.getPrice() != null) {
+            message.setPrice(Int32Value.of(product.getPrice()));
+        }
+        if (product.getImage() != null) {
+            message.setImage(product.getImage());
+        }
+        return message.build();
+    }
+
+    private <T> void respond(StreamObserver<T> responseObserver, Supplier<T> action) {
+        T response;
+        try {
+            response = TenantContext.call(GrpcTenantInterceptor.TENANT.get(), action);
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * 커넥션 한도 초과는 트랜잭션을 시작하지 못한 예외에 감싸여 오므로 원인까지 확인합니다.
+     */
+    private static Status toStatus(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ProductNotFoundException) {
+                return Status.NOT_FOUND.withDescription(cause.getMessage());
+            }
+            if (cause instanceof TenantQuotaExceededException) {
+                return Status.RESOURCE_EXHAUSTED.withDescription(cause.getMessage());
+            }
+        }
+        log.error("Unexpected error while handling a gRPC call", e);
+        return Status.INTERNAL.withDescription(e.getMessage()).withCause(e);
+    }
+}
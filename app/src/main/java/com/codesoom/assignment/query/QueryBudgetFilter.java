@@ -0,0 +1,66 @@
+package com.codesoom.assignment.query;
+
+import com.codesoom.assignment.exception.QueryBudgetExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 요청마다 실행된 SQL 문의 개수와 시간을 request attribute로 남기고, {@link QueryBudget}을 넘으면 경고합니다.
+ * strict 모드에서는 응답을 보내기 전에 예외를 던져 테스트가 실패하도록 합니다.
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String COUNT_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".count";
+
+    public static final String ELAPSED_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".elapsedMillis";
+
+    public static final String BUDGET_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".budget";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final boolean strict;
+
+    public QueryBudgetFilter(boolean strict) {
+        this.strict = strict;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // strict 모드에서는 응답을 모아 두었다가 예산 안일 때만 내보내서, 예산을 넘으면 200 대신 오류로 응답하게 합니다.
+        ContentCachingResponseWrapper buffered = strict ? new ContentCachingResponseWrapper(response) : null;
+
+        QueryCounter counter;
+        QueryCounter.start();
+        try {
+            chain.doFilter(request, buffered == null ? response : buffered);
+        } finally {
+            counter = QueryCounter.stop();
+            request.setAttribute(COUNT_ATTRIBUTE, counter.getCount());
+            request.setAttribute(ELAPSED_ATTRIBUTE, counter.getElapsedMillis());
+        }
+
+        Integer budget = (Integer) request.getAttribute(BUDGET_ATTRIBUTE);
+        if (budget != null && counter.getCount() > budget) {
+            String message = String.format("%s %s executed %d SQL statements (budget %d, %d ms)",
+                    request.getMethod(), request.getRequestURI(), counter.getCount(), budget,
+                    counter.getElapsedMillis());
+            if (strict) {
+                throw new QueryBudgetExceededException(message);
+            }
+            log.warn(message);
+        }
+
+        if (buffered != null) {
+            buffered.copyBodyToResponse();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.codesoom.assignment.query;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            QueryBudget budget = ((HandlerMethod) handler).getMethodAnnotation(QueryBudget.class);
+            if (budget != null) {
+                request.setAttribute(QueryBudgetFilter.BUDGET_ATTRIBUTE, budget.value());
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,39 @@
+package com.codesoom.assignment.query;
+
+public final class QueryCounter {
+
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+
+    private long count;
+
+    private long elapsedNanos;
+
+    private QueryCounter() {
+    }
+
+    public static void start() {
+        CURRENT.set(new QueryCounter());
+    }
+
+    public static QueryCounter stop() {
+        QueryCounter counter = CURRENT.get();
+        CURRENT.remove();
+        return counter;
+    }
+
+    public static void record(long elapsedNanos) {
+        QueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.count++;
+            counter.elapsedNanos += elapsedNanos;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+}
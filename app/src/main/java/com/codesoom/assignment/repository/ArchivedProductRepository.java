@@ -0,0 +1,11 @@
+package com.codesoom.assignment.repository;
+
+import com.codesoom.assignment.domain.ArchivedProduct;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ArchivedProductRepository extends JpaRepository<ArchivedProduct, Long> {
+
+    Optional<ArchivedProduct> findByIdAndTenantId(Long id, String tenantId);
+}
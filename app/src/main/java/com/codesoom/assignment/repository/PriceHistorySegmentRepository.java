@@ -0,0 +1,35 @@
+package com.codesoom.assignment.repository;
+
+import com.codesoom.assignment.domain.PriceHistorySegment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PriceHistorySegmentRepository extends JpaRepository<PriceHistorySegment, Long> {
+
+    List<PriceHistorySegment> findAllByProductIdInAndSealedFalse(Collection<Long> productIds);
+
+    /**
+     * 주어진 시각 이전에 시작한 구간 중 가장 최근 구간입니다. 그 시각의 가격은 이 구간에 있습니다.
+     */
+    Optional<PriceHistorySegment> findFirstByProductIdAndTenantIdAndFirstAtLessThanEqualOrderByFirstAtDesc(
+            Long productId, String tenantId, long at);
+
+    @Query("SELECT s FROM PriceHistorySegment s WHERE s.productId = :productId AND s.tenantId = :tenantId "
+            + "AND s.lastAt >= :from AND s.firstAt <= :to ORDER BY s.firstAt")
+    List<PriceHistorySegment> findOverlapping(@Param("productId") Long productId, @Param("tenantId") String tenantId,
+                                              @Param("from") long from, @Param("to") long to);
+
+    /**
+     * 기간과 겹치는 구간을 id 순서로 afterId 다음부터 나누어 읽습니다.
+     */
+    @Query("SELECT s FROM PriceHistorySegment s WHERE s.tenantId = :tenantId AND s.id > :afterId "
+            + "AND s.lastAt >= :from AND s.firstAt <= :to ORDER BY s.id")
+    List<PriceHistorySegment> findAllOverlapping(@Param("tenantId") String tenantId, @Param("afterId") long afterId,
+                                                 @Param("from") long from, @Param("to") long to, Pageable pageable);
+}
@@ -1,8 +1,149 @@
 package com.codesoom.assignment.repository;
 
 import com.codesoom.assignment.domain.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    interface ProductRow {
+
+        Long getId();
+
+        String getName();
+
+        String getMaker();
+
+        Integer getPrice();
+
+        String getImage();
+
+        String getTenantId();
+
+        default Product toProduct() {
+            Product product = new Product(getName(), getMaker(), getPrice(), getImage());
+            product.setId(getId());
+            product.setTenantId(getTenantId());
+            return product;
+        }
+    }
+
+    interface ArchivableRow extends ProductRow {
+
+        LocalDateTime getDeletedAt();
+    }
+
+    interface IdRange {
+
+        Long getMinId();
+
+        Long getMaxId();
+    }
+
+    interface TenantCount {
+
+        String getTenantId();
+
+        Long getCount();
+    }
+
+    interface MakerCount {
+
+        String getTenantId();
+
+        String getMaker();
+
+        Long getCount();
+    }
+
+    interface PriceCount {
+
+        String getTenantId();
+
+        Integer getPrice();
+
+        Long getCount();
+    }
+
+    List<Product> findAllByTenantId(String tenantId);
+
+    Optional<Product> findByIdAndTenantId(Long id, String tenantId);
+
+    List<Product> findAllByIdInAndTenantId(Collection<Long> ids, String tenantId);
+
+    List<Product> findByTenantIdAndIdGreaterThanOrderByIdAsc(String tenantId, Long afterId, Pageable pageable);
+
+    /**
+     * 살아있는 Product의 값만 읽습니다. 엔티티로 만들지 않으므로 영속성 컨텍스트에 남지 않고, 커밋할 때 변경 감지도 하지 않습니다.
+     */
+    @Query(value = "SELECT id, name, maker, price, image, tenant_id AS tenantId FROM product "
+            + "WHERE id = :id AND tenant_id = :tenantId AND deleted_at IS NULL",
+            nativeQuery = true)
+    Optional<ProductRow> findRowById(@Param("id") Long id, @Param("tenantId") String tenantId);
+
+    /**
+     * 한 번의 SQL로 삭제 표시를 하고, 삭제 전 값을 리턴합니다. 살아있는 Product가 없으면 비어 있습니다.
+     * <p>
+     * H2의 {@code OLD TABLE} 문법을 사용하므로 H2에서만 동작합니다. 다른 DB로 옮길 때는 서비스 트랜잭션 안에서
+     * 조회한 뒤 수정하도록 바꿔야 합니다. SELECT로 시작하는 쿼리라 {@code @Modifying}을 붙일 수 없어서,
+     * 서비스 밖에서 호출해도 쓰기 트랜잭션 안에서 실행되도록 {@code @Transactional}을 붙였습니다.
+     */
+    @Transactional
+    @Query(value = "SELECT id, name, maker, price, image, tenant_id AS tenantId FROM OLD TABLE ("
+            + "UPDATE product SET deleted_at = CURRENT_TIMESTAMP "
+            + "WHERE id = :id AND tenant_id = :tenantId AND deleted_at IS NULL)",
+            nativeQuery = true)
+    Optional<ProductRow> softDeleteById(@Param("id") Long id, @Param("tenantId") String tenantId);
+
+    /**
+     * 한 번의 SQL로 null이 아닌 값만 수정하고, 수정 전 값을 리턴합니다. 살아있는 Product가 없으면 비어 있습니다.
+     * {@link #softDeleteById}와 같은 이유로 H2에서만 동작합니다.
+     */
+    @Transactional
+    @Query(value = "SELECT id, name, maker, price, image, tenant_id AS tenantId FROM OLD TABLE ("
+            + "UPDATE product SET name = COALESCE(CAST(:name AS VARCHAR), name), "
+            + "maker = COALESCE(CAST(:maker AS VARCHAR), maker), price = COALESCE(CAST(:price AS INT), price), "
+            + "image = COALESCE(CAST(:image AS VARCHAR), image), updated_at = CURRENT_TIMESTAMP "
+            + "WHERE id = :id AND tenant_id = :tenantId AND deleted_at IS NULL)",
+            nativeQuery = true)
+    Optional<ProductRow> updatePartially(@Param("id") Long id, @Param("tenantId") String tenantId,
+                                         @Param("name") String name, @Param("maker") String maker,
+                                         @Param("price") Integer price, @Param("image") String image);
+
+    @Query("SELECT MIN(p.id) AS minId, MAX(p.id) AS maxId FROM Product p WHERE p.tenantId = :tenantId")
+    IdRange findIdRangeByTenantId(@Param("tenantId") String tenantId);
+
+    @Query("SELECT p.tenantId AS tenantId, COUNT(p) AS count FROM Product p GROUP BY p.tenantId")
+    List<TenantCount> countByTenant();
+
+    @Query("SELECT p.tenantId AS tenantId, p.maker AS maker, COUNT(p) AS count FROM Product p "
+            + "WHERE p.maker IS NOT NULL GROUP BY p.tenantId, p.maker")
+    List<MakerCount> countByMaker();
+
+    @Query("SELECT p.tenantId AS tenantId, p.price AS price, COUNT(p) AS count FROM Product p "
+            + "WHERE p.price IS NOT NULL GROUP BY p.tenantId, p.price")
+    List<PriceCount> countByPrice();
+
+    List<Product> findByIdBetweenAndTenantId(Long fromId, Long toId, String tenantId);
+
+    @Query(value = "SELECT id FROM product WHERE deleted_at IS NOT NULL LIMIT :limit", nativeQuery = true)
+    List<Number> findArchivableIds(@Param("limit") int limit);
+
+    /**
+     * 주어진 id 중 삭제 표시된 Product만 지우고, 지운 행을 리턴합니다.
+     * {@link #softDeleteById}와 같은 이유로 H2에서만 동작합니다.
+     */
+    @Transactional
+    @Query(value = "SELECT id, name, maker, price, image, tenant_id AS tenantId, deleted_at AS deletedAt "
+            + "FROM OLD TABLE (DELETE FROM product WHERE id IN (:ids) AND deleted_at IS NOT NULL)",
+            nativeQuery = true)
+    List<ArchivableRow> purgeArchivable(@Param("ids") Collection<Long> ids);
 }
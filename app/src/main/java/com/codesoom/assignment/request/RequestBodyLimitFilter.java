@@ -0,0 +1,120 @@
+package com.codesoom.assignment.request;
+
+import com.codesoom.assignment.exception.RequestBodyTooLargeException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 요청 본문을 max-body-bytes까지만 읽도록 제한합니다.
+ * Content-Length가 제한을 넘으면 본문을 읽기 전에, chunked 요청은 제한을 넘는 순간 {@link RequestBodyTooLargeException}을 던집니다.
+ * 예외는 본문을 읽는 DispatcherServlet 안에서 발생하므로 ProductErrorAdvice가 응답을 만듭니다.
+ */
+public class RequestBodyLimitFilter extends OncePerRequestFilter {
+
+    private final long maxBytes;
+
+    public RequestBodyLimitFilter(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(new LimitedRequest(request, maxBytes), response);
+    }
+
+    static class LimitedRequest extends HttpServletRequestWrapper {
+
+        private final long maxBytes;
+
+        private ServletInputStream inputStream;
+
+        LimitedRequest(HttpServletRequest request, long maxBytes) {
+            super(request);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (getContentLengthLong() > maxBytes) {
+                throw new RequestBodyTooLargeException(maxBytes);
+            }
+            if (inputStream == null) {
+                inputStream = new LimitedInputStream(super.getInputStream(), maxBytes);
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8.name() : encoding));
+        }
+    }
+
+    static class LimitedInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+
+        private final long maxBytes;
+
+        private long readBytes;
+
+        LimitedInputStream(ServletInputStream delegate, long maxBytes) {
+            this.delegate = delegate;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = delegate.read();
+            if (value != -1) {
+                count(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = delegate.read(bytes, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+
+        private void count(int bytes) {
+            readBytes += bytes;
+            if (readBytes > maxBytes) {
+                throw new RequestBodyTooLargeException(maxBytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * tenant별로 상세 조회된 Product id의 조회 수를 세고, 종료할 때 가장 많이 조회된 id를 파일에 남깁니다.
+ * 다음 시작 때 {@link ProductWarmup}이 이 파일을 읽어 같은 Product를 미리 조회합니다.
+ */
+@Component
+public class HotProductTracker {
+
+    private static final String SEPARATOR = " ";
+
+    private final Map<String, LongAdder> hits = new ConcurrentHashMap<>();
+
+    private final Path file;
+
+    private final int limit;
+
+    private final int maxTracked;
+
+    public HotProductTracker(@Value("${product.warmup.hot-ids-file:}") String file,
+                             @Value("${product.warmup.hot-ids:1000}") int limit) {
+        this.file = file.isEmpty() ? null : Paths.get(file);
+        this.limit = limit;
+        // 카탈로그 전체를 세지 않도록 남길 개수의 몇 배까지만 추적합니다.
+        this.maxTracked = limit * 10;
+    }
+
+    public void record(String tenant, Long id) {
+        String key = tenant + SEPARATOR + id;
+        LongAdder counter = hits.get(key);
+        if (counter == null) {
+            if (hits.size() >= maxTracked) {
+                return;
+            }
+            counter = hits.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * 조회 수가 많은 순서로 tenant별 id를 리턴합니다.
+     */
+    public Map<String, List<Long>> hottest() {
+        return group(hottestKeys().stream());
+    }
+
+    public Map<String, List<Long>> load() {
+        if (file == null || !Files.exists(file)) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            return group(Files.readAllLines(file).stream()
+                    .filter(line -> !line.isBlank())
+                    .limit(limit));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void save() {
+        List<String> keys = hottestKeys();
+        // 조회가 없었다면 이전 기록을 그대로 둡니다.
+        if (file == null || keys.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, keys);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> hottestKeys() {
+        return hits.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) -> entry.getValue().sum())
+                        .reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, List<Long>> group(Stream<String> keys) {
+        return keys.map(key -> key.trim().split(SEPARATOR))
+                .collect(Collectors.groupingBy(
+                        // tenant 없이 id만 기록된 이전 형식은 기본 tenant로 읽습니다.
+                        parts -> parts.length == 1 ? TenantContext.DEFAULT_TENANT : parts[0],
+                        LinkedHashMap::new,
+                        Collectors.mapping(parts -> Long.valueOf(parts[parts.length - 1]), Collectors.toList())));
+    }
+}
@@ -0,0 +1,284 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.domain.PriceHistorySegment;
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.dto.PriceChange;
+import com.codesoom.assignment.event.ProductChangedEvent;
+import com.codesoom.assignment.repository.PriceHistorySegmentRepository;
+import com.codesoom.assignment.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 커밋된 가격 변경을 Product별 {@link PriceHistorySegment}에 기록하고, 시각이나 기간으로 조회합니다.
+ * 변경 이벤트는 큐에 넣기만 하고 주기적으로 한 트랜잭션에 모아 기록하므로 수정 요청은 기록을 기다리지 않습니다.
+ * 기록이 계속 실패해도 메모리를 모두 쓰지 않도록 큐는 max-pending개까지만 받고, 넘치는 변경은 버리고 로그를 남깁니다.
+ * <p>
+ * 조회는 큐를 먼저 읽고 그 뒤에 기록된 구간을 읽습니다. 그 사이에 기록된 변경은 양쪽에서 보일 수 있어 같은 변경은
+ * 한 번만 리턴합니다. 조회가 시작된 뒤 들어온 변경은 포함되지 않을 수 있습니다.
+ */
+@Component
+public class PriceHistory {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceHistory.class);
+
+    private static final Comparator<PriceChange> BY_TIME = Comparator.comparing(PriceChange::getChangedAt);
+
+    private static final Comparator<PriceChange> BY_TIME_AND_PRODUCT = BY_TIME
+            .thenComparing(PriceChange::getProductId)
+            .thenComparing(PriceChange::getPrice);
+
+    private static final Comparator<PriceHistorySegment> NEWEST = Comparator
+            .comparingLong(PriceHistorySegment::getLastAt)
+            .thenComparing(PriceHistorySegment::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private static final int SEGMENT_PAGE_SIZE = 500;
+
+    private final BlockingQueue<Pending> pending;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final PriceHistorySegmentRepository segmentRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final int maxPending;
+
+    private final int maxChanges;
+
+    private final Clock clock;
+
+    @Autowired
+    public PriceHistory(PriceHistorySegmentRepository segmentRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${product.price-history.batch-size:5000}") int batchSize,
+                        @Value("${product.price-history.max-pending:100000}") int maxPending,
+                        @Value("${product.price-history.max-changes:10000}") int maxChanges) {
+        this(segmentRepository, transactionManager, batchSize, maxPending, maxChanges, Clock.systemUTC());
+    }
+
+    PriceHistory(PriceHistorySegmentRepository segmentRepository, PlatformTransactionManager transactionManager,
+                 int batchSize, int maxPending, int maxChanges, Clock clock) {
+        this.segmentRepository = segmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pending = new LinkedBlockingQueue<>(maxPending);
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.maxChanges = maxChanges;
+        this.clock = clock;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Product before = event.getBefore();
+        Product after = event.getAfter();
+        if (after == null || after.getPrice() == null
+                || before != null && after.getPrice().equals(before.getPrice())) {
+            return;
+        }
+        PriceChange change =
+                new PriceChange(event.getProductId(), after.getPrice(), Instant.ofEpochMilli(clock.millis()));
+        if (pending.offer(new Pending(after.getTenantId(), change))) {
+            return;
+        }
+
+        // 기록이 밀린 동안 모든 변경을 로그로 남기지 않도록 처음 버린 변경만 자세히 남깁니다.
+        if (dropped.sum() == 0) {
+            log.warn("Dropped price change of product {} to {} at {}: {} changes are waiting to be recorded",
+                    change.getProductId(), change.getPrice(), change.getChangedAt(), maxPending);
+        }
+        dropped.increment();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${product.price-history.flush-interval-ms:1000}")
+    public synchronized int flush() {
+        List<Pending> batch = pending.stream().limit(batchSize).collect(Collectors.toList());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> append(batch));
+
+        // 기록한 변경만 큐에서 뺍니다. 꺼내는 곳은 이 메소드뿐이므로 큐의 앞부분이 기록한 변경입니다.
+        batch.forEach(change -> pending.poll());
+
+        long droppedChanges = dropped.sumThenReset();
+        if (droppedChanges > 0) {
+            log.warn("Dropped {} price changes while the pending queue was full", droppedChanges);
+        }
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            while (flush() > 0) {
+                // 남은 변경을 모두 기록합니다.
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to record {} price changes on shutdown", pending.size(), e);
+        }
+    }
+
+    /**
+     * 주어진 시각에 적용되어 있던 가격입니다. 그 전에 기록된 가격이 없으면 비어 있습니다.
+     */
+    public Optional<PriceChange> priceAt(Long productId, Instant at) {
+        String tenant = TenantContext.current();
+        List<PriceChange> unflushed = unflushed(tenant, productId);
+        Optional<PriceChange> stored = segmentRepository
+                .findFirstByProductIdAndTenantIdAndFirstAtLessThanEqualOrderByFirstAtDesc(
+                        productId, tenant, at.toEpochMilli())
+                .flatMap(segment -> segment.changes().stream()
+                        .filter(change -> !change.getChangedAt().isAfter(at))
+                        .reduce((previous, next) -> next));
+
+        return Stream.concat(stored.stream(), unflushed.stream())
+                .filter(change -> !change.getChangedAt().isAfter(at))
+                .max(BY_TIME);
+    }
+
+    public List<PriceChange> history(Long productId, Instant from, Instant to) {
+        String tenant = TenantContext.current();
+        List<PriceChange> unflushed = unflushed(tenant, productId);
+        List<PriceHistorySegment> segments =
+                segmentRepository.findOverlapping(productId, tenant, from.toEpochMilli(), to.toEpochMilli());
+
+        return Stream.concat(segments.stream().flatMap(segment -> segment.changes().stream()), unflushed.stream())
+                .filter(change -> within(change, from, to))
+                .distinct()
+                .sorted(BY_TIME)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 기간 안의 변경 중 가장 이른 limit개를 시간 순서대로 리턴합니다. limit은 max-changes를 넘지 않습니다.
+     * 이어서 읽으려면 마지막 변경 시각을 from으로 다시 요청합니다.
+     */
+    public List<PriceChange> changesBetween(Instant from, Instant to, int limit) {
+        String tenant = TenantContext.current();
+        int maxSize = Math.max(1, Math.min(limit, maxChanges));
+        TreeSet<PriceChange> earliest = new TreeSet<>(BY_TIME_AND_PRODUCT);
+
+        unflushed(tenant, null).forEach(change -> keepEarliest(earliest, change, from, to, maxSize));
+
+        // 구간을 한 번에 모두 올리지 않도록 id 순서로 나누어 읽습니다.
+        long afterId = 0;
+        List<PriceHistorySegment> segments;
+        do {
+            segments = segmentRepository.findAllOverlapping(tenant, afterId, from.toEpochMilli(), to.toEpochMilli(),
+                    PageRequest.of(0, SEGMENT_PAGE_SIZE));
+            for (PriceHistorySegment segment : segments) {
+                segment.changes().forEach(change -> keepEarliest(earliest, change, from, to, maxSize));
+                afterId = segment.getId();
+            }
+        } while (segments.size() == SEGMENT_PAGE_SIZE);
+
+        return new ArrayList<>(earliest);
+    }
+
+    private void append(List<Pending> batch) {
+        Set<Long> productIds = batch.stream()
+                .map(change -> change.change.getProductId())
+                .collect(Collectors.toSet());
+        Set<PriceHistorySegment> changed = new LinkedHashSet<>();
+
+        // 여러 노드가 같은 Product의 구간을 동시에 열었다면 가장 최근 구간에만 이어 붙이고 나머지는 닫습니다.
+        Map<Long, PriceHistorySegment> openSegments = segmentRepository.findAllByProductIdInAndSealedFalse(productIds)
+                .stream()
+                .collect(Collectors.toMap(PriceHistorySegment::getProductId, Function.identity(),
+                        (segment, other) -> {
+                            PriceHistorySegment newest = NEWEST.compare(segment, other) >= 0 ? segment : other;
+                            PriceHistorySegment older = newest == segment ? other : segment;
+                            older.seal();
+                            changed.add(older);
+                            return newest;
+                        }));
+
+        for (Pending change : batch) {
+            Long productId = change.change.getProductId();
+            long changedAt = change.change.getChangedAt().toEpochMilli();
+            int price = change.change.getPrice();
+
+            PriceHistorySegment segment = openSegments.get(productId);
+            if (segment == null || !segment.append(changedAt, price)) {
+                segment = new PriceHistorySegment(productId, change.tenantId, changedAt);
+                segment.append(changedAt, price);
+                openSegments.put(productId, segment);
+            }
+            changed.add(segment);
+        }
+        segmentRepository.saveAll(changed);
+    }
+
+    private List<PriceChange> unflushed(String tenant, Long productId) {
+        return pending.stream()
+                .filter(change -> change.tenantId.equals(tenant))
+                .map(change -> change.change)
+                .filter(change -> productId == null || productId.equals(change.getProductId()))
+                .collect(Collectors.toList());
+    }
+
+    private static void keepEarliest(TreeSet<PriceChange> earliest, PriceChange change, Instant from, Instant to,
+                                     int maxSize) {
+        if (!within(change, from, to)) {
+            return;
+        }
+        earliest.add(change);
+        if (earliest.size() > maxSize) {
+            earliest.pollLast();
+        }
+    }
+
+    private static boolean within(PriceChange change, Instant from, Instant to) {
+        return !change.getChangedAt().isBefore(from) && !change.getChangedAt().isAfter(to);
+    }
+
+    private static class Pending {
+
+        private final String tenantId;
+
+        private final PriceChange change;
+
+        Pending(String tenantId, PriceChange change) {
+            this.tenantId = tenantId;
+            this.change = change;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.event.PricesFlushedEvent;
+import com.google.common.util.concurrent.Striped;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Product 가격 변경을 id 별로 모아두었다가 주기적으로 한 번의 batch UPDATE로 반영합니다.
+ * 같은 id에 대한 변경은 마지막 값만 남습니다.
+ * flush는 id 별 잠금 안에서 가격을 꺼내 반영 중인 가격으로 옮기고, 잠금을 모두 푼 뒤 batch UPDATE를 실행합니다.
+ * 반영 중인 가격도 읽기에 보이며, 반영 중인 id를 {@link #locked}로 바꾸려는 요청만 반영이 끝날 때까지 기다립니다.
+ */
+@Component
+public class PriceUpdateBuffer {
+
+    private static final String UPDATE_PRICE_SQL =
+            "UPDATE product SET price = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND deleted_at IS NULL";
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<Long, Integer> pendingPrices = new ConcurrentHashMap<>();
+
+    private final Map<Long, Integer> inFlightPrices = new ConcurrentHashMap<>();
+
+    /**
+     * 진행 중인 flush가 batch UPDATE를 마치면 열립니다. 반영 중인 id를 잠그려는 요청이 기다립니다.
+     */
+    private volatile CountDownLatch inFlightWritten = new CountDownLatch(0);
+
+    private final Striped<Lock> locks = Striped.lock(LOCK_STRIPES);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final boolean enabled;
+
+    public PriceUpdateBuffer(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                             @Value("${product.price-buffer.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void offer(Long id, Integer price) {
+        locked(id, () -> pendingPrices.put(id, price));
+    }
+
+    public void discard(Long id) {
+        locked(id, () -> pendingPrices.remove(id));
+    }
+
+    /**
+     * 주어진 id의 offer, discard, flush와 겹치지 않게 action을 실행합니다. id가 반영 중이면 반영이 끝난 뒤에 실행합니다.
+     * 버퍼의 가격을 읽어 DB에 쓰고 버리는 작업을 이 안에서 하면, 그 사이에 들어온 가격을 잃지 않고
+     * 진행 중인 flush가 새로 쓴 값을 이전 가격으로 덮어쓰지도 않습니다.
+     */
+    public <T> T locked(Long id, Supplier<T> action) {
+        Lock lock = locks.get(id);
+        while (true) {
+            CountDownLatch written;
+            lock.lock();
+            try {
+                if (!inFlightPrices.containsKey(id)) {
+                    return action.get();
+                }
+                written = inFlightWritten;
+            } finally {
+                lock.unlock();
+            }
+            awaitUninterruptibly(written);
+        }
+    }
+
+    /**
+     * 아직 DB에 반영되지 않은 가격입니다. 반영 중인 가격도 batch UPDATE가 끝날 때까지 여기서 읽습니다.
+     */
+    public Integer pendingPrice(Long id) {
+        Integer price = pendingPrices.get(id);
+        return price != null ? price : inFlightPrices.get(id);
+    }
+
+    public int pendingCount() {
+        return pendingPrices.size();
+    }
+
+    public Product apply(Product product) {
+        Integer pendingPrice = pendingPrice(product.getId());
+        if (pendingPrice == null) {
+            return product;
+        }
+        return product.withPrice(pendingPrice);
+    }
+
+    /**
+     * 버퍼의 가격을 DB에 반영하고, 반영한 id를 {@link PricesFlushedEvent}로 알립니다.
+     * 버퍼를 거친 가격은 이 이벤트 뒤에야 다른 노드가 DB에서 읽을 수 있습니다.
+     */
+    @Scheduled(fixedDelayString = "${product.price-buffer.flush-interval-ms:200}")
+    public synchronized int flush() {
+        List<Long> ids = new ArrayList<>(pendingPrices.keySet());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        CountDownLatch written = new CountDownLatch(1);
+        inFlightWritten = written;
+        List<Long> flushedIds;
+        try {
+            flushedIds = write(take(ids));
+        } finally {
+            written.countDown();
+        }
+
+        if (!flushedIds.isEmpty()) {
+            eventPublisher.publishEvent(new PricesFlushedEvent(flushedIds));
+        }
+        return flushedIds.size();
+    }
+
+    /**
+     * id 별 잠금을 하나씩 잡고 버퍼의 가격을 반영 중인 가격으로 옮깁니다.
+     */
+    private List<Map.Entry<Long, Integer>> take(List<Long> ids) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>();
+        for (Long id : ids) {
+            Lock lock = locks.get(id);
+            lock.lock();
+            try {
+                Integer price = pendingPrices.remove(id);
+                if (price != null) {
+                    inFlightPrices.put(id, price);
+                    entries.add(Map.entry(id, price));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return entries;
+    }
+
+    private List<Long> write(List<Map.Entry<Long, Integer>> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_PRICE_SQL, entries, entries.size(), (statement, entry) -> {
+                statement.setInt(1, entry.getValue());
+                statement.setLong(2, entry.getKey());
+            });
+        } catch (RuntimeException e) {
+            // 반영하지 못한 가격은 버퍼로 되돌려 다음 flush에서 다시 반영합니다.
+            entries.forEach(entry -> pendingPrices.putIfAbsent(entry.getKey(), entry.getValue()));
+            throw e;
+        } finally {
+            entries.forEach(entry -> inFlightPrices.remove(entry.getKey()));
+        }
+        return entries.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,71 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.repository.ProductRepository;
+import com.codesoom.assignment.repository.ProductRepository.ArchivableRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 삭제 표시된 Product를 product_archive 테이블로 옮깁니다.
+ * 삭제되지 않은 Product는 오래 변경되지 않았더라도 옮기지 않으므로, 목록, 상세 조회, 수정과 삭제는 항상 같은 Product를 봅니다.
+ */
+@Component
+public class ProductArchiver {
+
+    private static final String INSERT_ARCHIVE_SQL = "INSERT INTO product_archive "
+            + "(id, name, maker, price, image, tenant_id, deleted_at, archived_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+    private final ProductRepository productRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int batchSize;
+
+    public ProductArchiver(ProductRepository productRepository,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${product.archive.batch-size:500}") int batchSize) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 삭제할 때 이미 변경을 알렸으므로, 옮기는 동안에는 목록이나 집계에 알릴 것이 없습니다.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${product.archive.interval-ms:60000}")
+    public int compact() {
+        List<Long> ids = productRepository.findArchivableIds(batchSize).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // 다른 노드가 먼저 옮긴 Product는 DELETE에서 빠지므로, 실제로 지운 행만 보관합니다.
+        List<ArchivableRow> purgedRows = productRepository.purgeArchivable(ids);
+        if (purgedRows.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ARCHIVE_SQL, purgedRows, purgedRows.size(), (statement, row) -> {
+            statement.setLong(1, row.getId());
+            statement.setString(2, row.getName());
+            statement.setString(3, row.getMaker());
+            statement.setObject(4, row.getPrice(), Types.INTEGER);
+            statement.setString(5, row.getImage());
+            statement.setString(6, row.getTenantId());
+            statement.setTimestamp(7, Timestamp.valueOf(row.getDeletedAt()));
+        });
+        return purgedRows.size();
+    }
+}
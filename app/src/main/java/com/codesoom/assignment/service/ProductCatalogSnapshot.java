@@ -0,0 +1,372 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.cache.ProductCache;
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.event.ProductChangedEvent;
+import com.codesoom.assignment.tenant.TenantContext;
+import com.codesoom.assignment.tenant.TenantQuota;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * tenant마다 GET /products 응답을 직렬화된 JSON과 gzip 바이트로 미리 만들어 둡니다.
+ * 시작할 때 등록된 tenant의 스냅샷을 백그라운드에서 만들고, 그 전에 온 첫 요청은 직접 만들어 응답합니다.
+ * Product가 변경되어 커밋되면 변경된 id만 다시 읽어 직렬화하고, 그동안 읽기는 이전 스냅샷을 사용합니다.
+ * 배열을 다시 잇고 압축하는 일은 min-rebuild-interval-ms에 한 번만 하도록 그동안의 변경을 모읍니다.
+ * 다시 만들기에 실패해 max-staleness-ms보다 오래된 스냅샷은 다음 읽기에서 전체를 다시 만들도록 예약합니다.
+ */
+@Component
+public class ProductCatalogSnapshot implements ProductCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogSnapshot.class);
+
+    /**
+     * 한 번에 바뀐 id가 이보다 많으면 id 목록으로 조회하지 않고 전체를 다시 읽습니다.
+     */
+    private static final int MAX_INCREMENTAL_IDS = 1000;
+
+    private final ProductService productService;
+
+    private final ObjectMapper objectMapper;
+
+    private final TenantQuota tenantQuota;
+
+    private final long maxStalenessMillis;
+
+    private final long minRebuildIntervalMillis;
+
+    private final ScheduledExecutorService rebuildExecutor;
+
+    private final ConcurrentMap<String, Catalog> catalogs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProductCatalogSnapshot(ProductService productService, ObjectMapper objectMapper, TenantQuota tenantQuota,
+                                  @Value("${product.catalog.max-staleness-ms:5000}") long maxStalenessMillis,
+                                  @Value("${product.catalog.min-rebuild-interval-ms:500}") long minRebuildIntervalMillis) {
+        this(productService, objectMapper, tenantQuota, maxStalenessMillis, minRebuildIntervalMillis,
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "catalog-snapshot");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    ProductCatalogSnapshot(ProductService productService, ObjectMapper objectMapper, TenantQuota tenantQuota,
+                           long maxStalenessMillis, long minRebuildIntervalMillis,
+                           ScheduledExecutorService rebuildExecutor) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.tenantQuota = tenantQuota;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.minRebuildIntervalMillis = minRebuildIntervalMillis;
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    /**
+     * 현재 tenant의 마지막 스냅샷을 리턴합니다. 아직 만들어지지 않았다면 직접 만들어 리턴합니다.
+     */
+    public Snapshot current() {
+        return catalog(TenantContext.current()).current();
+    }
+
+    public long stalenessMillis() {
+        return catalog(TenantContext.current()).stalenessMillis();
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void buildAll() {
+        tenantQuota.tenants().forEach(tenant -> catalog(tenant).scheduleRebuild());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        String tenant = event.getTenantId();
+        if (tenant == null) {
+            catalogs.values().forEach(catalog -> catalog.markChanged(Set.of(event.getProductId())));
+            return;
+        }
+        // 설정에서 빠진 tenant의 Product가 보관되는 경우처럼 등록되지 않은 tenant의 변경은 스냅샷이 없습니다.
+        if (!tenantQuota.isRegistered(tenant)) {
+            return;
+        }
+        catalog(tenant).markChanged(Set.of(event.getProductId()));
+    }
+
+    /**
+     * 다른 노드에서 받은 id는 어느 tenant의 것인지 모르므로 모든 tenant에서 그 id를 다시 읽습니다.
+     */
+    @Override
+    public void evict(Collection<Long> productIds) {
+        catalogs.values().forEach(catalog -> catalog.markChanged(productIds));
+    }
+
+    /**
+     * 현재 tenant의 스냅샷을 전체 Product로 바로 다시 만듭니다.
+     */
+    public Snapshot refresh() {
+        return catalog(TenantContext.current()).rebuild(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private Catalog catalog(String tenant) {
+        return catalogs.computeIfAbsent(tenant, Catalog::new);
+    }
+
+    private byte[] serialize(Product product) {
+        try {
+            return objectMapper.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * id 순서로 정렬된 Product JSON 조각을 배열로 이어 붙이고 gzip으로도 압축합니다.
+     */
+    private static Snapshot assemble(long version, Collection<byte[]> fragments) {
+        int length = 2 + Math.max(fragments.size() - 1, 0);
+        for (byte[] fragment : fragments) {
+            length += fragment.length;
+        }
+
+        ByteBuffer json = ByteBuffer.allocateDirect(length);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            put(json, gzip, new byte[]{'['});
+            boolean first = true;
+            for (byte[] fragment : fragments) {
+                if (!first) {
+                    put(json, gzip, new byte[]{','});
+                }
+                put(json, gzip, fragment);
+                first = false;
+            }
+            put(json, gzip, new byte[]{']'});
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        json.flip();
+
+        return new Snapshot(version, System.currentTimeMillis(), json.asReadOnlyBuffer(),
+                toDirectBuffer(compressed.toByteArray()));
+    }
+
+    private static void put(ByteBuffer json, GZIPOutputStream gzip, byte[] bytes) throws IOException {
+        json.put(bytes);
+        gzip.write(bytes);
+    }
+
+    private static ByteBuffer toDirectBuffer(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private class Catalog {
+
+        private final String tenant;
+
+        private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+        private final AtomicLong changeVersion = new AtomicLong();
+
+        private final AtomicLong staleSince = new AtomicLong();
+
+        private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+        private final Set<Long> changedIds = ConcurrentHashMap.newKeySet();
+
+        /**
+         * 처음 만들 때와 다시 만들기에 실패한 뒤에는 바뀐 id를 믿을 수 없으므로 전체를 다시 읽습니다.
+         */
+        private final AtomicBoolean fullRebuild = new AtomicBoolean(true);
+
+        /**
+         * id별 Product JSON입니다. rebuild 안에서만 바꿉니다.
+         */
+        private NavigableMap<Long, byte[]> fragments = new TreeMap<>();
+
+        Catalog(String tenant) {
+            this.tenant = tenant;
+        }
+
+        /**
+         * 동시에 온 첫 요청들은 rebuild의 잠금에서 백그라운드 작업이나 먼저 온 요청이 만든 스냅샷을 기다립니다.
+         */
+        Snapshot current() {
+            Snapshot snapshot = current.get();
+            if (snapshot == null) {
+                return rebuild(false);
+            }
+            if (stalenessMillis() > maxStalenessMillis) {
+                retry();
+            }
+            return snapshot;
+        }
+
+        long stalenessMillis() {
+            long since = staleSince.get();
+            if (since == 0) {
+                return 0;
+            }
+            return System.currentTimeMillis() - since;
+        }
+
+        void markChanged(Collection<Long> productIds) {
+            changedIds.addAll(productIds);
+            scheduleRebuild();
+        }
+
+        void scheduleRebuild() {
+            changeVersion.incrementAndGet();
+            staleSince.compareAndSet(0, System.currentTimeMillis());
+            retry();
+        }
+
+        /**
+         * 예약된 작업이 없을 때만 다시 만들기를 예약합니다. 작업이 실패해도 다음 읽기나 변경이 다시 예약합니다.
+         * 작업이 끝날 때까지 들어온 변경은 그 작업이 끝난 뒤 다음 간격에 한 번 더 예약해 모읍니다.
+         */
+        private void retry() {
+            if (!rebuildScheduled.compareAndSet(false, true)) {
+                return;
+            }
+            rebuildExecutor.schedule(() -> {
+                try {
+                    rebuild(false);
+                } catch (RuntimeException e) {
+                    rebuildScheduled.set(false);
+                    log.warn("Failed to rebuild catalog snapshot of tenant {}", tenant, e);
+                    return;
+                }
+                rebuildScheduled.set(false);
+                if (staleSince.get() != 0) {
+                    retry();
+                }
+            }, rebuildDelayMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * 마지막 스냅샷을 만든 뒤 min-rebuild-interval-ms가 지날 때까지 기다립니다. 스냅샷이 없다면 바로 만듭니다.
+         */
+        private long rebuildDelayMillis() {
+            Snapshot snapshot = current.get();
+            if (snapshot == null) {
+                return 0;
+            }
+            return Math.max(snapshot.getBuiltAt() + minRebuildIntervalMillis - System.currentTimeMillis(), 0);
+        }
+
+        synchronized Snapshot rebuild(boolean full) {
+            long version = changeVersion.get();
+            long since = staleSince.get();
+
+            List<Long> ids = new ArrayList<>(changedIds);
+            changedIds.removeAll(ids);
+            boolean whole = full || fullRebuild.getAndSet(false) || ids.size() > MAX_INCREMENTAL_IDS;
+
+            Snapshot snapshot = current.get();
+            if (whole || !ids.isEmpty() || snapshot == null) {
+                try {
+                    if (whole) {
+                        fragments = readAll();
+                    } else {
+                        readChanged(ids);
+                    }
+                } catch (RuntimeException e) {
+                    fullRebuild.set(true);
+                    throw e;
+                }
+                snapshot = assemble(version, fragments.values());
+                current.set(snapshot);
+            }
+
+            // 만드는 동안 새 변경이 없었을 때만 최신 상태로 표시합니다.
+            if (changeVersion.get() == version) {
+                staleSince.compareAndSet(since, 0);
+            }
+            return snapshot;
+        }
+
+        private NavigableMap<Long, byte[]> readAll() {
+            NavigableMap<Long, byte[]> all = new TreeMap<>();
+            for (Product product : TenantContext.call(tenant, productService::getProducts)) {
+                all.put(product.getId(), serialize(product));
+            }
+            return all;
+        }
+
+        /**
+         * 바뀐 id만 다시 읽습니다. 찾지 못한 id는 삭제됐거나 다른 tenant의 것이므로 스냅샷에서 뺍니다.
+         * 중간에 실패하면 fullRebuild로 다음에 전체를 다시 읽으므로 조각을 그 자리에서 바꿉니다.
+         */
+        private void readChanged(List<Long> ids) {
+            List<Product> found = TenantContext.call(tenant, () -> productService.getProductsByIds(ids));
+            ids.forEach(fragments::remove);
+            for (Product product : found) {
+                fragments.put(product.getId(), serialize(product));
+            }
+        }
+    }
+
+    @Getter
+    public static class Snapshot {
+
+        private final long version;
+
+        private final long builtAt;
+
+        private final ByteBuffer json;
+
+        private final ByteBuffer gzip;
+
+        Snapshot(long version, long builtAt, ByteBuffer json, ByteBuffer gzip) {
+            this.version = version;
+            this.builtAt = builtAt;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        public ByteBuffer getJson() {
+            return json.duplicate();
+        }
+
+        public ByteBuffer getGzip() {
+            return gzip.duplicate();
+        }
+    }
+}
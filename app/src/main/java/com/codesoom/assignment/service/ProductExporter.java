@@ -0,0 +1,258 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.dto.ExportJob;
+import com.codesoom.assignment.dto.ExportResult;
+import com.codesoom.assignment.exception.ExportJobNotFoundException;
+import com.codesoom.assignment.repository.ProductRepository;
+import com.codesoom.assignment.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Product id 범위를 나누어 병렬로 읽고, 파티션마다 gzip 블록으로 압축한 NDJSON 파일을 만듭니다.
+ * 각 블록은 독립된 gzip member라서 이어붙인 파일 전체를 그대로 gunzip 할 수 있고, 블록은 id 순서로 씁니다.
+ * 요청한 tenant의 Product만 내보내며, 작업은 요청 스레드가 아닌 백그라운드에서 한 번에 하나씩 실행합니다.
+ * 파일은 .part 이름으로 쓴 뒤 다 쓰면 최종 이름으로 옮기므로, 실패한 작업의 파일이 완성된 파일처럼 남지 않습니다.
+ */
+@Component
+public class ProductExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductExporter.class);
+
+    private static final int MAX_JOBS = 100;
+
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private final ProductRepository productRepository;
+
+    private final PriceUpdateBuffer priceUpdateBuffer;
+
+    private final ObjectWriter objectWriter;
+
+    private final Path directory;
+
+    private final int parallelism;
+
+    private final int partitionSize;
+
+    private final ExecutorService jobExecutor;
+
+    /**
+     * 최근 작업만 남기고 오래된 작업의 상태와 파일은 지웁니다.
+     */
+    private final Map<String, ExportJob> jobs = Collections.synchronizedMap(
+            new LinkedHashMap<String, ExportJob>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ExportJob> eldest) {
+                    if (size() <= MAX_JOBS) {
+                        return false;
+                    }
+                    delete(file(eldest.getValue()));
+                    return true;
+                }
+            });
+
+    @Autowired
+    public ProductExporter(ProductRepository productRepository,
+                           PriceUpdateBuffer priceUpdateBuffer,
+                           ObjectMapper objectMapper,
+                           @Value("${product.export.directory:${java.io.tmpdir}}") String directory,
+                           @Value("${product.export.parallelism:2}") int parallelism,
+                           @Value("${product.export.partition-size:10000}") int partitionSize) {
+        this(productRepository, priceUpdateBuffer, objectMapper, directory, parallelism, partitionSize,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "product-export");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    ProductExporter(ProductRepository productRepository, PriceUpdateBuffer priceUpdateBuffer,
+                    ObjectMapper objectMapper, String directory, int parallelism, int partitionSize,
+                    ExecutorService jobExecutor) {
+        this.productRepository = productRepository;
+        this.priceUpdateBuffer = priceUpdateBuffer;
+        this.objectWriter = objectMapper.writerFor(Product.class);
+        this.directory = Paths.get(directory);
+        this.parallelism = parallelism;
+        this.partitionSize = partitionSize;
+        this.jobExecutor = jobExecutor;
+    }
+
+    /**
+     * 현재 tenant의 내보내기 작업을 예약하고 바로 리턴합니다. 파일은 products-{tenant}-{id}.ndjson.gz로 만듭니다.
+     */
+    public ExportJob start() {
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), TenantContext.current());
+        jobs.put(job.getId(), job);
+
+        jobExecutor.execute(() -> {
+            Path file = file(job);
+            try {
+                job.complete(export(job.getTenantId(), file));
+            } catch (RuntimeException e) {
+                log.warn("Failed to export products of tenant {}", job.getTenantId(), e);
+                job.fail(e.getMessage());
+            }
+            // 실행하는 동안 목록에서 밀려난 작업은 아무도 찾을 수 없으므로 파일을 남기지 않습니다.
+            if (!jobs.containsKey(job.getId())) {
+                delete(file);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * 현재 tenant가 시작한 작업만 찾습니다.
+     */
+    public ExportJob job(String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null || !job.getTenantId().equals(TenantContext.current())) {
+            throw new ExportJobNotFoundException(id);
+        }
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    ExportResult export(String tenant, Path target) {
+        long startedAt = System.currentTimeMillis();
+        priceUpdateBuffer.flush();
+
+        List<long[]> partitions = partition(TenantContext.call(tenant,
+                () -> productRepository.findIdRangeByTenantId(tenant)));
+
+        Path partial = target.resolveSibling(target.getFileName() + PARTIAL_SUFFIX);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            ExportResult result = writePartitions(tenant, partitions, partial, startedAt, pool);
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            pool.shutdownNow();
+            delete(partial);
+        }
+    }
+
+    private ExportResult writePartitions(String tenant, List<long[]> partitions, Path partial, long startedAt,
+                                         ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(partial,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long rows = 0;
+            // 블록을 파티션 순서로 쓰되, 앞 파티션을 기다리는 동안 쌓이는 블록이 제한되도록 몇 개만 미리 읽습니다.
+            Deque<ForkJoinTask<Block>> inFlight = new ArrayDeque<>();
+            Iterator<long[]> remaining = partitions.iterator();
+            while (remaining.hasNext() || !inFlight.isEmpty()) {
+                while (remaining.hasNext() && inFlight.size() < parallelism * 2) {
+                    long[] partition = remaining.next();
+                    inFlight.add(pool.submit(() -> compress(tenant, partition[0], partition[1])));
+                }
+
+                Block block = inFlight.poll().join();
+                write(channel, ByteBuffer.wrap(block.bytes));
+                rows += block.rows;
+            }
+
+            return new ExportResult(rows, partitions.size(), channel.size(),
+                    System.currentTimeMillis() - startedAt);
+        }
+    }
+
+    List<long[]> partition(ProductRepository.IdRange range) {
+        List<long[]> partitions = new ArrayList<>();
+        if (range.getMinId() == null) {
+            return partitions;
+        }
+
+        for (long from = range.getMinId(); from <= range.getMaxId(); from += partitionSize) {
+            partitions.add(new long[]{from, Math.min(from + partitionSize - 1, range.getMaxId())});
+        }
+        return partitions;
+    }
+
+    private Path file(ExportJob job) {
+        return directory.resolve("products-" + job.getTenantId() + "-" + job.getId() + ".ndjson.gz");
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete export file {}", file, e);
+        }
+    }
+
+    private Block compress(String tenant, long fromId, long toId) {
+        List<Product> products = TenantContext.call(tenant,
+                () -> productRepository.findByIdBetweenAndTenantId(fromId, toId, tenant));
+        if (products.isEmpty()) {
+            return new Block(0, new byte[0]);
+        }
+
+        ByteArrayOutputStream block = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(block)) {
+            for (Product product : products) {
+                gzip.write(objectWriter.writeValueAsBytes(product));
+                gzip.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Block(products.size(), block.toByteArray());
+    }
+
+    private void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static class Block {
+
+        private final long rows;
+
+        private final byte[] bytes;
+
+        Block(long rows, byte[] bytes) {
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+    }
+}
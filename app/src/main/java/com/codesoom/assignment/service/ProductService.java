@@ -1,50 +1,161 @@
 package com.codesoom.assignment.service;
 
+import com.codesoom.assignment.domain.ArchivedProduct;
 import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.event.ProductChangedEvent;
 import com.codesoom.assignment.exception.ProductNotFoundException;
+import com.codesoom.assignment.repository.ArchivedProductRepository;
 import com.codesoom.assignment.repository.ProductRepository;
-import org.modelmapper.ModelMapper;
+import com.codesoom.assignment.repository.ProductRepository.ProductRow;
+import com.codesoom.assignment.tenant.TenantContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
+/**
+ * 현재 요청의 tenant에 속한 Product만 조회하고 변경합니다.
+ */
 @Service
 @Transactional
 public class ProductService {
 
     private final ProductRepository productsRepository;
 
-    private final ModelMapper modelMapper;
+    private final ArchivedProductRepository archivedProductRepository;
 
-    public ProductService(ProductRepository productsRepository, ModelMapper modelMapper) {
+    private final PriceUpdateBuffer priceUpdateBuffer;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductService(ProductRepository productsRepository, ArchivedProductRepository archivedProductRepository,
+                          PriceUpdateBuffer priceUpdateBuffer, ApplicationEventPublisher eventPublisher) {
         this.productsRepository = productsRepository;
-        this.modelMapper = modelMapper;
+        this.archivedProductRepository = archivedProductRepository;
+        this.priceUpdateBuffer = priceUpdateBuffer;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Product> getProducts() {
-        return productsRepository.findAll();
+        return productsRepository.findAllByTenantId(TenantContext.current()).stream()
+                .map(priceUpdateBuffer::apply)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 주어진 id 중 찾은 Product만 한 번의 SQL로 조회합니다. 리턴 순서는 id 순서와 다를 수 있습니다.
+     */
+    public List<Product> getProductsByIds(Collection<Long> ids) {
+        return productsRepository.findAllByIdInAndTenantId(ids, TenantContext.current()).stream()
+                .map(priceUpdateBuffer::apply)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * afterId보다 큰 id의 Product를 id 순서로 최대 size개 조회합니다. 마지막 id를 다시 넘기면 이어서 읽습니다.
+     */
+    public List<Product> getProductsAfter(Long afterId, int size) {
+        return productsRepository.findByTenantIdAndIdGreaterThanOrderByIdAsc(TenantContext.current(), afterId,
+                        PageRequest.of(0, size)).stream()
+                .map(priceUpdateBuffer::apply)
+                .collect(Collectors.toList());
     }
 
     public Product getProduct(Long id) {
-        return productsRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id));
+        return priceUpdateBuffer.apply(findProduct(id));
+    }
+
+    public ArchivedProduct getArchivedProduct(Long id) {
+        return archivedProductRepository.findByIdAndTenantId(id, TenantContext.current())
+                .orElseThrow(() -> new ProductNotFoundException(id));
     }
 
     public Product createProduct(Product product) {
-        return productsRepository.save(product);
+        product.setTenantId(TenantContext.current());
+        Product createdProduct = productsRepository.save(product);
+        publish(createdProduct.getId(), ProductChangedEvent.Type.CREATED, null, copyOf(createdProduct));
+        return createdProduct;
     }
 
+    /**
+     * 주어진 값 중 null이 아닌 것만 수정합니다. PUT과 PATCH 모두 null인 속성은 이전 값을 유지합니다.
+     */
     public Product updateProduct(Long targetId, Product source) {
-        Product product = getProduct(targetId);
+        if (priceUpdateBuffer.isEnabled() && isPriceOnly(source)) {
+            // 응답과 변경 이벤트에 쓸 현재 값만 읽고, 엔티티는 만들지 않습니다.
+            return priceUpdateBuffer.locked(targetId, () -> {
+                Product before = productsRepository.findRowById(targetId, TenantContext.current())
+                        .map(ProductRow::toProduct)
+                        .map(priceUpdateBuffer::apply)
+                        .orElseThrow(() -> new ProductNotFoundException(targetId));
+                Product after = before.withPrice(source.getPrice());
+                priceUpdateBuffer.offer(targetId, source.getPrice());
+                publish(targetId, ProductChangedEvent.Type.UPDATED, before, after);
+                return after;
+            });
+        }
+
+        // 버퍼의 가격을 이번 UPDATE에 함께 반영하고 버리는 동안 같은 id의 offer와 flush가 끼어들지 않게 합니다.
+        return priceUpdateBuffer.locked(targetId, () -> {
+            Integer price = valueOrDefault(source.getPrice(), priceUpdateBuffer.pendingPrice(targetId));
+
+            Product before = productsRepository.updatePartially(targetId, TenantContext.current(), source.getName(),
+                            source.getMaker(), price, source.getImage())
+                    .map(ProductRow::toProduct)
+                    .map(priceUpdateBuffer::apply)
+                    .orElseThrow(() -> new ProductNotFoundException(targetId));
+            priceUpdateBuffer.discard(targetId);
 
-        this.modelMapper.map(source, product);
-        product.setId(targetId);
+            Product after = new Product(
+                    valueOrDefault(source.getName(), before.getName()),
+                    valueOrDefault(source.getMaker(), before.getMaker()),
+                    valueOrDefault(price, before.getPrice()),
+                    valueOrDefault(source.getImage(), before.getImage()));
+            after.setId(targetId);
+            after.setTenantId(before.getTenantId());
+            publish(targetId, ProductChangedEvent.Type.UPDATED, before, after);
 
-        return product;
+            return after;
+        });
     }
 
     public void deleteProduct(Long id) {
-        Product product = getProduct(id);
-        productsRepository.delete(product);
+        priceUpdateBuffer.locked(id, () -> {
+            Product before = productsRepository.softDeleteById(id, TenantContext.current())
+                    .map(ProductRow::toProduct)
+                    .map(priceUpdateBuffer::apply)
+                    .orElseThrow(() -> new ProductNotFoundException(id));
+            priceUpdateBuffer.discard(id);
+            publish(id, ProductChangedEvent.Type.DELETED, before, null);
+            return null;
+        });
+    }
+
+    private Product findProduct(Long id) {
+        return productsRepository.findByIdAndTenantId(id, TenantContext.current())
+                .orElseThrow(() -> new ProductNotFoundException(id));
+    }
+
+    private void publish(Long id, ProductChangedEvent.Type type, Product before, Product after) {
+        eventPublisher.publishEvent(new ProductChangedEvent(id, type, before, after));
+    }
+
+    private static <T> T valueOrDefault(T value, T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    private Product copyOf(Product product) {
+        return product.withPrice(product.getPrice());
+    }
+
+    private boolean isPriceOnly(Product source) {
+        return source.getPrice() != null
+                && source.getName() == null
+                && source.getMaker() == null
+                && source.getImage() == null;
     }
 }
@@ -0,0 +1,172 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.dto.ProductStats;
+import com.codesoom.assignment.event.ProductChangedEvent;
+import com.codesoom.assignment.repository.ProductRepository;
+import com.codesoom.assignment.tenant.TenantContext;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * tenant별 Product 개수, 가격 통계, 메이커별 개수와 가격 히스토그램을 메모리에서 증분으로 관리합니다.
+ * 모든 빈이 만들어진 뒤 웹 서버, gRPC 서버, 스케줄 작업이 시작되기 전에 DB 집계로 한 번 만들고, 이후에는 커밋된 변경의
+ * 전후 값으로만 갱신합니다. 집계하는 동안 커밋되는 변경이 없으므로 집계와 이벤트가 같은 변경을 두 번 세지 않습니다.
+ * 다른 노드의 변경은 전후 값 없이 id만 전달되므로 반영하지 않습니다. 여러 노드로 운영하면 각 노드의 통계는
+ * 시작 이후 그 노드가 처리한 변경만 반영하므로 노드마다 다를 수 있습니다.
+ */
+@Component
+public class ProductStatistics implements SmartInitializingSingleton {
+
+    private final ProductRepository productRepository;
+
+    private final int bucketWidth;
+
+    // 변경 반영은 서로 막지 않고, 다시 만드는 동안에만 멈춥니다.
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private final ConcurrentMap<String, TenantStatistics> tenants = new ConcurrentHashMap<>();
+
+    public ProductStatistics(ProductRepository productRepository,
+                             @Value("${product.stats.histogram-bucket-width:10000}") int bucketWidth) {
+        this.productRepository = productRepository;
+        this.bucketWidth = bucketWidth;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            tenants.clear();
+
+            productRepository.countByTenant()
+                    .forEach(tenantCount -> statistics(tenantCount.getTenantId()).count.add(tenantCount.getCount()));
+            productRepository.countByMaker()
+                    .forEach(makerCount -> statistics(makerCount.getTenantId())
+                            .addMaker(makerCount.getMaker(), makerCount.getCount()));
+            productRepository.countByPrice()
+                    .forEach(priceCount -> statistics(priceCount.getTenantId())
+                            .addPrice(priceCount.getPrice(), priceCount.getCount()));
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        rebuildLock.readLock().lock();
+        try {
+            if (event.getBefore() != null) {
+                statistics(event.getBefore().getTenantId()).apply(event.getBefore(), -1);
+            }
+            if (event.getAfter() != null) {
+                statistics(event.getAfter().getTenantId()).apply(event.getAfter(), 1);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public ProductStats getSummary() {
+        return current().getSummary();
+    }
+
+    public Map<String, Long> getMakerCounts() {
+        return toSortedMap(current().makerCounts);
+    }
+
+    public Map<Integer, Long> getPriceHistogram() {
+        return toSortedMap(current().priceBuckets);
+    }
+
+    private TenantStatistics current() {
+        return tenants.getOrDefault(TenantContext.current(), TenantStatistics.EMPTY);
+    }
+
+    private TenantStatistics statistics(String tenant) {
+        return tenants.computeIfAbsent(tenant, key -> new TenantStatistics(bucketWidth));
+    }
+
+    private static <K extends Comparable<K>> Map<K, Long> toSortedMap(Map<K, LongAdder> adders) {
+        Map<K, Long> result = new TreeMap<>();
+        adders.forEach((key, adder) -> {
+            long value = adder.sum();
+            if (value > 0) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    private static class TenantStatistics {
+
+        static final TenantStatistics EMPTY = new TenantStatistics(1);
+
+        private final int bucketWidth;
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder pricedCount = new LongAdder();
+
+        private final LongAdder priceSum = new LongAdder();
+
+        private final ConcurrentMap<String, LongAdder> makerCounts = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Integer, LongAdder> priceBuckets = new ConcurrentHashMap<>();
+
+        private final ConcurrentSkipListMap<Integer, Long> priceCounts = new ConcurrentSkipListMap<>();
+
+        TenantStatistics(int bucketWidth) {
+            this.bucketWidth = bucketWidth;
+        }
+
+        ProductStats getSummary() {
+            Map.Entry<Integer, Long> min = priceCounts.firstEntry();
+            Map.Entry<Integer, Long> max = priceCounts.lastEntry();
+            long priced = pricedCount.sum();
+
+            return new ProductStats(
+                    count.sum(),
+                    min == null ? null : min.getKey(),
+                    max == null ? null : max.getKey(),
+                    priced == 0 ? null : (double) priceSum.sum() / priced);
+        }
+
+        void apply(Product product, long delta) {
+            count.add(delta);
+            if (product.getMaker() != null) {
+                addMaker(product.getMaker(), delta);
+            }
+            if (product.getPrice() != null) {
+                addPrice(product.getPrice(), delta);
+            }
+        }
+
+        void addMaker(String maker, long delta) {
+            makerCounts.computeIfAbsent(maker, key -> new LongAdder()).add(delta);
+        }
+
+        void addPrice(int price, long delta) {
+            pricedCount.add(delta);
+            priceSum.add(price * delta);
+            priceBuckets.computeIfAbsent(Math.floorDiv(price, bucketWidth) * bucketWidth, key -> new LongAdder())
+                    .add(delta);
+            priceCounts.merge(price, delta, (current, added) -> current + added == 0 ? null : current + added);
+        }
+    }
+}
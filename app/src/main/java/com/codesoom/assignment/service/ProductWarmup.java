@@ -0,0 +1,196 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.exception.ProductNotFoundException;
+import com.codesoom.assignment.repository.ProductRepository;
+import com.codesoom.assignment.tenant.TenantContext;
+import com.codesoom.assignment.tenant.TenantQuota;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * 준비 상태가 되기 전에 tenant마다 자주 조회되는 Product를 ProductService로 다시 조회해서 JIT, Hibernate 쿼리 계획,
+ * H2 페이지 캐시, Jackson 직렬화와 목록 스냅샷을 데웁니다.
+ * ApplicationRunner는 ReadinessState가 ACCEPTING_TRAFFIC으로 바뀌기 전에 끝까지 실행됩니다.
+ */
+@Component
+@ConditionalOnProperty(name = "product.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductWarmup.class);
+
+    private final ProductService productService;
+
+    private final ProductRepository productRepository;
+
+    private final ProductCatalogSnapshot catalogSnapshot;
+
+    private final HotProductTracker hotProductTracker;
+
+    private final PriceUpdateBuffer priceUpdateBuffer;
+
+    private final TenantQuota tenantQuota;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectWriter objectWriter;
+
+    private final ObjectReader objectReader;
+
+    private final int hotIds;
+
+    private final int iterations;
+
+    private final int updateSamples;
+
+    private final long maxMillis;
+
+    public ProductWarmup(ProductService productService,
+                         ProductRepository productRepository,
+                         ProductCatalogSnapshot catalogSnapshot,
+                         HotProductTracker hotProductTracker,
+                         PriceUpdateBuffer priceUpdateBuffer,
+                         TenantQuota tenantQuota,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${product.warmup.hot-ids:1000}") int hotIds,
+                         @Value("${product.warmup.iterations:3}") int iterations,
+                         @Value("${product.warmup.update-samples:50}") int updateSamples,
+                         @Value("${product.warmup.max-millis:30000}") long maxMillis) {
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.catalogSnapshot = catalogSnapshot;
+        this.hotProductTracker = hotProductTracker;
+        this.priceUpdateBuffer = priceUpdateBuffer;
+        this.tenantQuota = tenantQuota;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectWriter = objectMapper.writerFor(Product.class);
+        this.objectReader = objectMapper.readerFor(Product.class);
+        this.hotIds = hotIds;
+        this.iterations = iterations;
+        this.updateSamples = updateSamples;
+        this.maxMillis = maxMillis;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    public int warmUp() {
+        long startedAt = System.currentTimeMillis();
+        long deadline = startedAt + maxMillis;
+        Map<String, List<Long>> ids = hotIds();
+
+        int calls = 0;
+        for (Map.Entry<String, List<Long>> entry : ids.entrySet()) {
+            // 이전 실행에서 남긴 기록에는 지금은 등록되지 않은 tenant가 있을 수 있습니다.
+            if (!tenantQuota.isRegistered(entry.getKey())) {
+                log.warn("Skipped warmup for unknown tenant {}", entry.getKey());
+                continue;
+            }
+            calls += TenantContext.call(entry.getKey(), () -> warmUp(entry.getValue(), deadline));
+        }
+
+        log.info("Warmed up {} tenants with {} calls in {} ms",
+                ids.size(), calls, System.currentTimeMillis() - startedAt);
+        return calls;
+    }
+
+    Map<String, List<Long>> hotIds() {
+        Map<String, List<Long>> recorded = hotProductTracker.load();
+        if (!recorded.isEmpty()) {
+            return recorded;
+        }
+
+        // 기록이 없으면 기본 tenant에서 최근에 만든 Product를 대신 사용합니다.
+        Map<String, List<Long>> latest = new LinkedHashMap<>();
+        ProductRepository.IdRange range = productRepository.findIdRangeByTenantId(TenantContext.DEFAULT_TENANT);
+        if (range.getMinId() != null) {
+            latest.put(TenantContext.DEFAULT_TENANT,
+                    LongStream.rangeClosed(Math.max(range.getMinId(), range.getMaxId() - hotIds + 1), range.getMaxId())
+                            .boxed()
+                            .collect(Collectors.toList()));
+        }
+        return latest;
+    }
+
+    private int warmUp(List<Long> ids, long deadline) {
+        List<Product> found = new ArrayList<>();
+        int calls = 0;
+        for (int iteration = 0; iteration < iterations && System.currentTimeMillis() < deadline; iteration++) {
+            found.clear();
+            for (Long id : ids) {
+                if (System.currentTimeMillis() >= deadline) {
+                    break;
+                }
+                find(id).ifPresent(product -> found.add(roundTrip(product)));
+                calls++;
+            }
+        }
+
+        catalogSnapshot.refresh();
+        calls++;
+
+        for (Product product : found.subList(0, Math.min(updateSamples, found.size()))) {
+            if (replayUpdate(product)) {
+                calls++;
+            }
+        }
+        return calls;
+    }
+
+    private Optional<Product> find(Long id) {
+        try {
+            return Optional.of(productService.getProduct(id));
+        } catch (ProductNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Product roundTrip(Product product) {
+        try {
+            return objectReader.readValue(objectWriter.writeValueAsBytes(product));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean replayUpdate(Product product) {
+        // 반영되지 않은 가격은 UPDATE 경로에서 버퍼에서 지워지므로 건너뜁니다.
+        if (priceUpdateBuffer.pendingPrice(product.getId()) != null) {
+            return false;
+        }
+
+        // 같은 값으로 UPDATE 하고 롤백하므로 데이터와 변경 이벤트는 남지 않습니다.
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            try {
+                productService.updateProduct(product.getId(), Product.builder().name(product.getName()).build());
+            } catch (ProductNotFoundException ignored) {
+                // 그 사이에 삭제된 Product입니다.
+            }
+        });
+        return true;
+    }
+}
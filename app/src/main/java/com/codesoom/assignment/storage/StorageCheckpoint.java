@@ -0,0 +1,27 @@
+package com.codesoom.assignment.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * H2는 커밋된 변경을 WRITE_DELAY 안에 백그라운드에서 파일에 쓰지만, 운영체제 버퍼에 머물 수 있습니다.
+ * 주기적으로 CHECKPOINT SYNC를 실행해 파일을 디스크에 동기화하므로, 전원이 꺼져도 잃는 변경은 마지막 체크포인트 이후로 한정됩니다.
+ * MVStore는 쓰는 동안 빈 chunk를 재사용하며 정리하고, 종료할 때 MAX_COMPACT_TIME 동안 파일을 압축합니다.
+ */
+@Component
+@ConditionalOnProperty(name = "product.storage.checkpoint.enabled", havingValue = "true")
+public class StorageCheckpoint {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StorageCheckpoint(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${product.storage.checkpoint.interval-ms:60000}")
+    public void checkpoint() {
+        jdbcTemplate.execute("CHECKPOINT SYNC");
+    }
+}
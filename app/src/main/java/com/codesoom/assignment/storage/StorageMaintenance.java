@@ -0,0 +1,81 @@
+package com.codesoom.assignment.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * H2 파일 DB를 서비스 중에 백업하고 오래된 백업을 지웁니다.
+ * 지연 쓰기된 변경을 디스크에 내리는 일은 백업과 따로 켜고 끌 수 있게 {@link StorageCheckpoint}가 맡습니다.
+ */
+@Component
+@ConditionalOnProperty(name = "product.storage.backup.enabled", havingValue = "true")
+public class StorageMaintenance {
+
+    static final String BACKUP_PREFIX = "demo-";
+
+    static final String BACKUP_SUFFIX = ".zip";
+
+    private static final DateTimeFormatter BACKUP_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Path directory;
+
+    private final int retain;
+
+    public StorageMaintenance(JdbcTemplate jdbcTemplate,
+                              @Value("${product.storage.backup.directory}") String directory,
+                              @Value("${product.storage.backup.retain:7}") int retain) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = Paths.get(directory);
+        this.retain = retain;
+    }
+
+    @Scheduled(cron = "${product.storage.backup.cron:0 0 3 * * *}")
+    public Path backup() {
+        Path target = directory.resolve(BACKUP_PREFIX + LocalDateTime.now().format(BACKUP_TIME) + BACKUP_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        jdbcTemplate.execute("BACKUP TO '" + target.toString().replace("'", "''") + "'");
+        prune();
+        return target;
+    }
+
+    int prune() {
+        List<Path> expired;
+        try (Stream<Path> files = Files.list(directory)) {
+            expired = files
+                    .filter(file -> file.getFileName().toString().startsWith(BACKUP_PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(BACKUP_SUFFIX))
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .skip(retain)
+                    .collect(Collectors.toList());
+
+            for (Path file : expired) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return expired.size();
+    }
+}
@@ -0,0 +1,56 @@
+package com.codesoom.assignment.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드가 처리하는 tenant를 담습니다. 요청 스레드는 {@link TenantInterceptor}가 정하고,
+ * 백그라운드 작업은 {@link #call(String, Supplier)}로 tenant를 지정합니다.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    public static final int MAX_TENANT_LENGTH = 32;
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * 지정된 tenant가 없으면 기본 tenant를 리턴합니다.
+     */
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant == null ? DEFAULT_TENANT : tenant;
+    }
+
+    /**
+     * 지정된 tenant가 없으면 null을 리턴합니다.
+     */
+    public static String get() {
+        return CURRENT.get();
+    }
+
+    public static void set(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T call(String tenant, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
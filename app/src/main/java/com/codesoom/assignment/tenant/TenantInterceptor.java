@@ -0,0 +1,58 @@
+package com.codesoom.assignment.tenant;
+
+import com.codesoom.assignment.exception.UnknownTenantException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link #TENANT_HEADER} 헤더로 tenant를 정하고, 요청이 끝나면 tenant별 처리 시간을 기록합니다.
+ * 헤더가 없으면 기본 tenant로 처리하고, 등록되지 않은 tenant는 컨트롤러에 닿기 전에 거부합니다.
+ */
+public class TenantInterceptor implements HandlerInterceptor {
+
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    static final String STARTED_AT_ATTRIBUTE = TenantInterceptor.class.getName() + ".startedAt";
+
+    private final Set<String> tenants;
+
+    private final MeterRegistry meterRegistry;
+
+    public TenantInterceptor(Set<String> tenants, MeterRegistry meterRegistry) {
+        this.tenants = tenants;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String tenant = request.getHeader(TENANT_HEADER);
+        if (tenant == null || tenant.isEmpty()) {
+            tenant = TenantContext.DEFAULT_TENANT;
+        }
+        if (!tenants.contains(tenant)) {
+            throw new UnknownTenantException(tenant);
+        }
+
+        TenantContext.set(tenant);
+        request.setAttribute(STARTED_AT_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Long startedAt = (Long) request.getAttribute(STARTED_AT_ATTRIBUTE);
+        Timer.builder("product.tenant.requests")
+                .tag("tenant", TenantContext.current())
+                .tag("status", String.valueOf(response.getStatus()))
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        TenantContext.clear();
+    }
+}
@@ -0,0 +1,95 @@
+package com.codesoom.assignment.tenant;
+
+import com.codesoom.assignment.exception.TenantQuotaExceededException;
+import com.codesoom.assignment.exception.UnknownTenantException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * tenant마다 동시에 사용할 수 있는 DB 커넥션 수를 제한해서 한 tenant가 커넥션 풀을 모두 차지하지 못하게 합니다.
+ * 등록되지 않은 tenant로 커넥션을 얻으려 하면 {@link UnknownTenantException}을 던집니다.
+ */
+public class TenantQuota implements MeterBinder {
+
+    private final Map<String, Semaphore> permits;
+
+    private final Map<String, LongAdder> rejections;
+
+    private final int maxConnections;
+
+    private final long acquireTimeoutMillis;
+
+    public TenantQuota(Collection<String> tenants, int maxConnections, long acquireTimeoutMillis) {
+        this.permits = tenants.stream()
+                .collect(Collectors.toMap(Function.identity(), tenant -> new Semaphore(maxConnections)));
+        this.rejections = tenants.stream()
+                .collect(Collectors.toMap(Function.identity(), tenant -> new LongAdder()));
+        this.maxConnections = maxConnections;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    public boolean isRegistered(String tenant) {
+        return permits.containsKey(tenant);
+    }
+
+    public Set<String> tenants() {
+        return Collections.unmodifiableSet(permits.keySet());
+    }
+
+    public void acquire(String tenant) {
+        Semaphore semaphore = permits(tenant);
+        try {
+            if (semaphore.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejections.get(tenant).increment();
+        throw new TenantQuotaExceededException(tenant);
+    }
+
+    public void release(String tenant) {
+        permits(tenant).release();
+    }
+
+    public int active(String tenant) {
+        return maxConnections - permits(tenant).availablePermits();
+    }
+
+    public long rejected(String tenant) {
+        return rejections.get(tenant).sum();
+    }
+
+    private Semaphore permits(String tenant) {
+        Semaphore semaphore = permits.get(tenant);
+        if (semaphore == null) {
+            throw new UnknownTenantException(tenant);
+        }
+        return semaphore;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        permits.keySet().forEach(tenant -> {
+            Gauge.builder("product.tenant.connections.active", this, quota -> quota.active(tenant))
+                    .tag("tenant", tenant)
+                    .register(registry);
+            FunctionCounter.builder("product.tenant.connections.rejected", this, quota -> quota.rejected(tenant))
+                    .tag("tenant", tenant)
+                    .register(registry);
+        });
+    }
+}
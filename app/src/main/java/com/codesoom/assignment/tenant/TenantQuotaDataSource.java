@@ -0,0 +1,70 @@
+package com.codesoom.assignment.tenant;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 요청 스레드가 커넥션을 얻을 때 tenant의 {@link TenantQuota}를 차지하고, 커넥션을 닫을 때 돌려줍니다.
+ * tenant가 지정되지 않은 백그라운드 작업은 제한하지 않습니다.
+ */
+public class TenantQuotaDataSource extends DelegatingDataSource {
+
+    private final TenantQuota tenantQuota;
+
+    public TenantQuotaDataSource(DataSource targetDataSource, TenantQuota tenantQuota) {
+        super(targetDataSource);
+        this.tenantQuota = tenantQuota;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return acquire(super::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return acquire(() -> super.getConnection(username, password));
+    }
+
+    private Connection acquire(ConnectionSource source) throws SQLException {
+        String tenant = TenantContext.get();
+        if (tenant == null) {
+            return source.getConnection();
+        }
+
+        tenantQuota.acquire(tenant);
+        try {
+            return releasingConnection(source.getConnection(), tenant);
+        } catch (SQLException | RuntimeException e) {
+            tenantQuota.release(tenant);
+            throw e;
+        }
+    }
+
+    private Connection releasingConnection(Connection connection, String tenant) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(TenantQuotaDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        tenantQuota.release(tenant);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+
+        Connection getConnection() throws SQLException;
+    }
+}
@@ -0,0 +1,31 @@
+-- ddl-auto로 만든 이전 스키마 위에서도 실행되도록 이미 있는 테이블, 컬럼, 인덱스는 건너뜁니다.
+CREATE TABLE IF NOT EXISTS product (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       VARCHAR(100),
+    maker      VARCHAR(100),
+    price      INTEGER,
+    image      VARCHAR(255),
+    updated_at TIMESTAMP,
+    deleted_at TIMESTAMP
+);
+
+ALTER TABLE product ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+ALTER TABLE product ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_product_maker ON product (maker);
+CREATE INDEX IF NOT EXISTS idx_product_price ON product (price);
+CREATE INDEX IF NOT EXISTS idx_product_updated_at ON product (updated_at);
+CREATE INDEX IF NOT EXISTS idx_product_deleted_at ON product (deleted_at);
+
+CREATE TABLE IF NOT EXISTS product_archive (
+    id          BIGINT PRIMARY KEY,
+    name        VARCHAR(255),
+    maker       VARCHAR(255),
+    price       INTEGER,
+    image       VARCHAR(255),
+    deleted_at  TIMESTAMP,
+    archived_at TIMESTAMP
+);
+
+ALTER TABLE product_archive ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+ALTER TABLE product_archive ADD COLUMN IF NOT EXISTS archived_at TIMESTAMP;
@@ -0,0 +1,14 @@
+ALTER TABLE product ADD COLUMN IF NOT EXISTS tenant_id VARCHAR(32) DEFAULT 'default' NOT NULL;
+
+DROP INDEX IF EXISTS idx_product_maker;
+DROP INDEX IF EXISTS idx_product_price;
+CREATE INDEX IF NOT EXISTS idx_product_tenant ON product (tenant_id, id);
+CREATE INDEX idx_product_maker ON product (tenant_id, maker);
+CREATE INDEX idx_product_price ON product (tenant_id, price);
+
+-- 보관된 Product도 product.tenant_id와 같은 정의를 가집니다. 이전 스키마에 이미 있던 컬럼은 값을 채운 뒤 맞춥니다.
+ALTER TABLE product_archive ADD COLUMN IF NOT EXISTS tenant_id VARCHAR(32) DEFAULT 'default' NOT NULL;
+UPDATE product_archive SET tenant_id = 'default' WHERE tenant_id IS NULL;
+ALTER TABLE product_archive ALTER COLUMN tenant_id VARCHAR(32);
+ALTER TABLE product_archive ALTER COLUMN tenant_id SET DEFAULT 'default';
+ALTER TABLE product_archive ALTER COLUMN tenant_id SET NOT NULL;
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS price_history_segment (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id  BIGINT,
+    tenant_id   VARCHAR(32),
+    first_at    BIGINT NOT NULL,
+    last_at     BIGINT NOT NULL,
+    last_price  INTEGER NOT NULL,
+    entry_count INTEGER NOT NULL,
+    sealed      BOOLEAN NOT NULL,
+    data        VARBINARY(1024)
+);
+
+CREATE INDEX IF NOT EXISTS idx_price_history_product ON price_history_segment (product_id, first_at);
+CREATE INDEX IF NOT EXISTS idx_price_history_window ON price_history_segment (tenant_id, last_at);
@@ -0,0 +1,69 @@
+package com.codesoom.assignment.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("MulticastInvalidationTransport 클래스")
+class MulticastInvalidationTransportTest {
+
+    private final UUID sender = UUID.randomUUID();
+
+    private final UUID receiver = UUID.randomUUID();
+
+    @Nested
+    @DisplayName("encode 메소드는")
+    class Describe_encode {
+
+        @Test
+        @DisplayName("한 datagram에 담을 수 있는 만큼씩 나누어 인코딩한다.")
+        void it_split_packets() {
+            List<Long> ids = LongStream.range(0, MulticastInvalidationTransport.MAX_IDS_PER_PACKET + 1)
+                    .boxed()
+                    .collect(Collectors.toList());
+
+            List<byte[]> packets = MulticastInvalidationTransport.encode(sender, ids);
+
+            assertThat(packets).hasSize(2);
+            assertThat(MulticastInvalidationTransport.decode(receiver, ByteBuffer.wrap(packets.get(1))))
+                    .containsExactly((long) MulticastInvalidationTransport.MAX_IDS_PER_PACKET);
+        }
+    }
+
+    @Nested
+    @DisplayName("decode 메소드는")
+    class Describe_decode {
+
+        @Test
+        @DisplayName("다른 노드가 보낸 id를 디코딩한다.")
+        void it_decode_ids() {
+            byte[] packet = MulticastInvalidationTransport.encode(sender, List.of(1L, 2L)).get(0);
+
+            assertThat(MulticastInvalidationTransport.decode(receiver, ByteBuffer.wrap(packet)))
+                    .containsExactly(1L, 2L);
+        }
+
+        @Test
+        @DisplayName("자신이 보낸 메시지는 무시한다.")
+        void it_ignore_own_message() {
+            byte[] packet = MulticastInvalidationTransport.encode(sender, List.of(1L)).get(0);
+
+            assertThat(MulticastInvalidationTransport.decode(sender, ByteBuffer.wrap(packet))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("알 수 없는 메시지는 무시한다.")
+        void it_ignore_unknown_message() {
+            assertThat(MulticastInvalidationTransport.decode(receiver, ByteBuffer.wrap(new byte[3]))).isEmpty();
+            assertThat(MulticastInvalidationTransport.decode(receiver, ByteBuffer.allocate(64))).isEmpty();
+        }
+    }
+}
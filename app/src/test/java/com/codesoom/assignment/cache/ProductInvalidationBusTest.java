@@ -0,0 +1,108 @@
+package com.codesoom.assignment.cache;
+
+import com.codesoom.assignment.event.PricesFlushedEvent;
+import com.codesoom.assignment.event.ProductChangedEvent;
+import com.codesoom.assignment.service.PriceUpdateBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("ProductInvalidationBus 클래스")
+class ProductInvalidationBusTest {
+
+    private ProductCache localCache;
+
+    private ProductCache remoteCache;
+
+    private PriceUpdateBuffer priceUpdateBuffer;
+
+    private ProductInvalidationBus localBus;
+
+    @BeforeEach
+    void setUp() {
+        LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+
+        localCache = mock(ProductCache.class);
+        remoteCache = mock(ProductCache.class);
+        priceUpdateBuffer = new PriceUpdateBuffer(mock(JdbcTemplate.class), mock(ApplicationEventPublisher.class),
+                true);
+
+        localBus = new ProductInvalidationBus(transport, List.of(localCache), priceUpdateBuffer);
+        new ProductInvalidationBus(transport.join(), List.of(remoteCache), priceUpdateBuffer);
+    }
+
+    @Nested
+    @DisplayName("flush 메소드는")
+    class Describe_flush {
+
+        @Nested
+        @DisplayName("커밋된 변경이 있다면")
+        class Context_with_changes {
+
+            @BeforeEach
+            void prepare() {
+                localBus.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.Type.UPDATED));
+                localBus.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.Type.UPDATED));
+                localBus.onProductChanged(new ProductChangedEvent(2L, ProductChangedEvent.Type.DELETED));
+            }
+
+            @Test
+            @DisplayName("같은 id는 한 번만 모아 다른 노드에 보내고, 자신에게는 보내지 않는다.")
+            void it_publish_coalesced_ids() {
+                assertThat(localBus.flush()).isEqualTo(2);
+
+                verify(remoteCache).evict(argThat((Collection<Long> ids) -> ids.containsAll(List.of(1L, 2L))));
+                verify(localCache, never()).evict(any());
+            }
+        }
+
+        @Nested
+        @DisplayName("가격이 아직 버퍼에 있는 변경이라면")
+        class Context_with_buffered_price {
+
+            @BeforeEach
+            void prepare() {
+                priceUpdateBuffer.offer(1L, 2000);
+                localBus.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.Type.UPDATED));
+            }
+
+            @Test
+            @DisplayName("버퍼가 DB에 반영된 뒤에 보낸다.")
+            void it_publish_after_buffer_flush() {
+                assertThat(localBus.flush()).isZero();
+                verify(remoteCache, never()).evict(any());
+
+                localBus.onPricesFlushed(new PricesFlushedEvent(List.of(1L)));
+
+                assertThat(localBus.flush()).isEqualTo(1);
+                verify(remoteCache).evict(List.of(1L));
+            }
+        }
+
+        @Nested
+        @DisplayName("변경이 없다면")
+        class Context_without_changes {
+
+            @Test
+            @DisplayName("아무것도 보내지 않는다.")
+            void it_does_nothing() {
+                assertThat(localBus.flush()).isZero();
+
+                verify(remoteCache, never()).evict(any());
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.codesoom.assignment.controller;
+
+import com.codesoom.assignment.dto.PriceChange;
+import com.codesoom.assignment.query.QueryBudgetFilter;
+import com.codesoom.assignment.service.PriceHistory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("PriceHistoryController 클래스")
+class PriceHistoryControllerTest {
+
+    private static final Instant CHANGED_AT = Instant.parse("2020-09-13T12:26:40Z");
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    PriceHistory priceHistory;
+
+    @Nested
+    @DisplayName("GET /products/prices 요청은")
+    class Describe_changes {
+
+        @Test
+        @DisplayName("200(Ok)와 기간 안의 가격 변경을 응답하고, 나누어 읽으므로 SQL 문 개수를 제한하지 않습니다.")
+        void it_return_ok_and_changes() throws Exception {
+            given(priceHistory.changesBetween(CHANGED_AT.minusSeconds(60), CHANGED_AT, 1000))
+                    .willReturn(List.of(new PriceChange(1L, 1000, CHANGED_AT)));
+
+            mockMvc.perform(get("/products/prices")
+                    .param("from", "2020-09-13T12:25:40Z")
+                    .param("to", "2020-09-13T12:26:40Z"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].productId").value(1))
+                    .andExpect(jsonPath("$[0].price").value(1000))
+                    .andExpect(jsonPath("$[0].changedAt").value("2020-09-13T12:26:40Z"))
+                    .andExpect(request().attribute(QueryBudgetFilter.BUDGET_ATTRIBUTE, nullValue()))
+                    .andDo(print());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /products/{id}/prices 요청은")
+    class Describe_history {
+
+        @Test
+        @DisplayName("기간이 없으면 처음부터 지금까지의 가격 변경을 응답합니다.")
+        void it_return_ok_and_history() throws Exception {
+            given(priceHistory.history(eq(1L), eq(Instant.EPOCH), any()))
+                    .willReturn(List.of(new PriceChange(1L, 1000, CHANGED_AT)));
+
+            mockMvc.perform(get("/products/1/prices"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].price").value(1000))
+                    .andDo(print());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /products/{id}/prices/at 요청은")
+    class Describe_priceAt {
+
+        @Test
+        @DisplayName("200(Ok)와 주어진 시각의 가격을 응답합니다.")
+        void it_return_ok_and_price() throws Exception {
+            given(priceHistory.priceAt(1L, CHANGED_AT)).willReturn(Optional.of(new PriceChange(1L, 1000, CHANGED_AT)));
+
+            mockMvc.perform(get("/products/1/prices/at").param("time", "2020-09-13T12:26:40Z"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.price").value(1000))
+                    .andDo(print());
+        }
+
+        @Test
+        @DisplayName("그 시각 이전에 기록된 가격이 없으면 404(Not found)와 이력이 없다는 메시지를 응답합니다.")
+        void it_return_not_found() throws Exception {
+            given(priceHistory.priceAt(1L, CHANGED_AT)).willReturn(Optional.empty());
+
+            mockMvc.perform(get("/products/1/prices/at").param("time", "2020-09-13T12:26:40Z"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.message").value("Price history not found: 1"))
+                    .andDo(print());
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package com.codesoom.assignment.controller;
 
+import com.codesoom.assignment.domain.ArchivedProduct;
 import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.dto.ExportJob;
+import com.codesoom.assignment.dto.ExportResult;
+import com.codesoom.assignment.exception.ExportJobNotFoundException;
 import com.codesoom.assignment.exception.ProductNotFoundException;
+import com.codesoom.assignment.service.ProductCatalogSnapshot;
+import com.codesoom.assignment.service.ProductExporter;
 import com.codesoom.assignment.service.ProductService;
+import com.codesoom.assignment.tenant.TenantInterceptor;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +20,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -20,20 +28,24 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = "product.query-budget.strict=true")
 @AutoConfigureMockMvc
 @DisplayName("ProductController 클래스")
 class ProductControllerTest {
@@ -44,21 +56,26 @@ class ProductControllerTest {
     @MockBean
     ProductService productService;
 
+    @MockBean
+    ProductExporter productExporter;
+
     @Autowired
     ObjectMapper objectMapper;
 
+    @Autowired
+    ProductCatalogSnapshot catalogSnapshot;
+
     List<Product> products = new ArrayList<>();
 
     @BeforeEach
     void setUp() {
-        Product product = Product.builder()
-                .name("테스트 제품")
-                .maker("테스트 메이커")
-                .price(1000)
-                .image("http://test.com/test.jpg")
-                .build();
-
         IntStream.range(0, 5).forEach(i -> {
+            Product product = Product.builder()
+                    .name("테스트 제품")
+                    .maker("테스트 메이커")
+                    .price(1000)
+                    .image("http://test.com/test.jpg")
+                    .build();
             product.setId(Long.valueOf(i));
             products.add(product);
         });
@@ -78,6 +95,7 @@ class ProductControllerTest {
             void prepare() {
                 givenProductsCount = products.size();
                 given(productService.getProducts()).willReturn(products);
+                catalogSnapshot.refresh();
             }
 
             @Test
@@ -86,6 +104,39 @@ class ProductControllerTest {
                 mockMvc.perform(get("/products"))
                         .andExpect(status().isOk())
                         .andExpect(jsonPath("$", hasSize(givenProductsCount)))
+                        .andExpect(header().exists(ProductController.SNAPSHOT_VERSION_HEADER))
+                        .andExpect(header().exists(ProductController.SNAPSHOT_STALENESS_HEADER))
+                        .andDo(print());
+            }
+
+            @Test
+            @DisplayName("gzip을 허용하면 압축된 스냅샷을 응답합니다.")
+            void it_return_gzip_snapshot() throws Exception {
+                mockMvc.perform(get("/products")
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                        .andDo(print());
+            }
+
+            @Test
+            @DisplayName("gzip의 q 값이 0이면 압축하지 않은 스냅샷을 응답합니다.")
+            void it_return_identity_snapshot_when_gzip_refused() throws Exception {
+                mockMvc.perform(get("/products")
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *;q=1"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                        .andExpect(jsonPath("$", hasSize(givenProductsCount)))
+                        .andDo(print());
+            }
+
+            @Test
+            @DisplayName("gzip이 없어도 *를 허용하면 압축된 스냅샷을 응답합니다.")
+            void it_return_gzip_snapshot_for_wildcard() throws Exception {
+                mockMvc.perform(get("/products")
+                                .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, *;q=0.5"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
                         .andDo(print());
             }
         }
@@ -100,6 +151,7 @@ class ProductControllerTest {
             void prepare() {
                 givenProductsCount = emptyProducts.size();
                 given(productService.getProducts()).willReturn(emptyProducts);
+                catalogSnapshot.refresh();
             }
 
             @Test
@@ -157,6 +209,67 @@ class ProductControllerTest {
                         .andDo(print());
             }
         }
+
+        @Nested
+        @DisplayName("등록되지 않은 tenant가 주어진다면")
+        class Context_with_unknown_tenant {
+
+            @Test
+            @DisplayName("서비스를 호출하지 않고 400(Bad Request)를 응답합니다.")
+            void it_return_bad_request() throws Exception {
+                mockMvc.perform(get("/products/1").header(TenantInterceptor.TENANT_HEADER, "unknown"))
+                        .andExpect(status().isBadRequest())
+                        .andDo(print());
+
+                verify(productService, never()).getProduct(any());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /products/archive/{id} 요청은")
+    class Describe_archived {
+
+        @Nested
+        @DisplayName("보관된 Product의 id가 주어진다면")
+        class Context_with_archived_id {
+
+            Long givenId = 1L;
+
+            @BeforeEach
+            void prepare() {
+                given(productService.getArchivedProduct(givenId)).willReturn(new ArchivedProduct());
+            }
+
+            @Test
+            @DisplayName("200(Ok)와 보관된 Product의 정보를 응답합니다.")
+            void it_return_ok_and_archived_product() throws Exception {
+                mockMvc.perform(get("/products/archive/" + givenId))
+                        .andExpect(status().isOk())
+                        .andDo(print());
+            }
+        }
+
+        @Nested
+        @DisplayName("보관되지 않은 Product의 id가 주어진다면")
+        class Context_with_invalid_id {
+
+            Long givenInvalidId = 9999L;
+
+            @BeforeEach
+            void prepare() {
+                given(productService.getArchivedProduct(givenInvalidId))
+                        .willThrow(new ProductNotFoundException(givenInvalidId));
+            }
+
+            @Test
+            @DisplayName("404(Not found)를 응답합니다.")
+            void it_return_not_found() throws Exception {
+                mockMvc.perform(get("/products/archive/" + givenInvalidId))
+                        .andExpect(status().isNotFound())
+                        .andDo(print());
+            }
+        }
     }
 
     @Nested
@@ -187,6 +300,57 @@ class ProductControllerTest {
             }
         }
 
+        @Nested
+        @DisplayName("제약 조건을 어긴 Product가 주어진다면")
+        class Context_with_invalid_product {
+
+            @Test
+            @DisplayName("서비스를 호출하지 않고 400(Bad Request)와 어긴 필드를 응답합니다.")
+            void it_return_bad_request_with_fields() throws Exception {
+                mockMvc.perform(post("/products")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"\",\"maker\":\"메이커\",\"price\":-1,\"image\":\"not url\"}"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.message").value(containsString("name")))
+                        .andExpect(jsonPath("$.message").value(containsString("price")))
+                        .andExpect(jsonPath("$.message").value(containsString("image")))
+                        .andDo(print());
+
+                verify(productService, never()).createProduct(any(Product.class));
+            }
+        }
+
+        @Nested
+        @DisplayName("잘못된 JSON이 주어진다면")
+        class Context_with_malformed_json {
+
+            @Test
+            @DisplayName("400(Bad Request)를 응답합니다.")
+            void it_return_bad_request() throws Exception {
+                mockMvc.perform(post("/products")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"a\",\"name\":\"b\"}"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.message").value("Malformed request body"))
+                        .andDo(print());
+            }
+        }
+
+        @Nested
+        @DisplayName("본문이 너무 크다면")
+        class Context_with_too_large_body {
+
+            @Test
+            @DisplayName("413(Payload Too Large)를 응답합니다.")
+            void it_return_payload_too_large() throws Exception {
+                mockMvc.perform(post("/products")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"" + "a".repeat(20000) + "\"}"))
+                        .andExpect(status().isPayloadTooLarge())
+                        .andDo(print());
+            }
+        }
+
         @Nested
         @DisplayName("Product가 없다면")
         class Context_without_product {
@@ -202,6 +366,50 @@ class ProductControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("/products/export 요청은")
+    class Describe_export {
+
+        @Test
+        @DisplayName("202(Accepted)와 작업 id를 응답하고, 서버 경로는 드러내지 않습니다.")
+        void it_return_accepted_and_job() throws Exception {
+            given(productExporter.start()).willReturn(new ExportJob("job-1", "default"));
+
+            mockMvc.perform(post("/products/export"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.id").value("job-1"))
+                    .andExpect(jsonPath("$.status").value("RUNNING"))
+                    .andExpect(jsonPath("$.path").doesNotExist())
+                    .andExpect(jsonPath("$.tenantId").doesNotExist())
+                    .andDo(print());
+        }
+
+        @Test
+        @DisplayName("작업 id로 조회하면 200(Ok)와 작업 결과를 응답합니다.")
+        void it_return_ok_and_job_result() throws Exception {
+            ExportJob job = new ExportJob("job-1", "default");
+            job.complete(new ExportResult(5, 1, 100, 10));
+            given(productExporter.job("job-1")).willReturn(job);
+
+            mockMvc.perform(get("/products/export/job-1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("COMPLETED"))
+                    .andExpect(jsonPath("$.result.rows").value(5))
+                    .andExpect(jsonPath("$.result.rowsPerSecond").value(500))
+                    .andDo(print());
+        }
+
+        @Test
+        @DisplayName("없는 작업 id로 조회하면 404(Not Found)를 응답합니다.")
+        void it_return_not_found() throws Exception {
+            given(productExporter.job("missing")).willThrow(new ExportJobNotFoundException("missing"));
+
+            mockMvc.perform(get("/products/export/missing"))
+                    .andExpect(status().isNotFound())
+                    .andDo(print());
+        }
+    }
+
     @Nested
     @DisplayName("PUT/PATCH /products 요청은")
     class Describe_update {
@@ -252,6 +460,47 @@ class ProductControllerTest {
             }
         }
 
+        @Nested
+        @DisplayName("일부 필드만 주어진다면")
+        class Context_with_partial_product {
+
+            @Test
+            @DisplayName("주어진 필드만 검사합니다.")
+            void it_validate_given_fields_only() throws Exception {
+                given(productService.updateProduct(eq(1L), any(Product.class))).willReturn(products.get(0));
+
+                mockMvc.perform(patch("/products/1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"price\":2000}"))
+                        .andExpect(status().isOk())
+                        .andDo(print());
+
+                mockMvc.perform(patch("/products/1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"price\":-1}"))
+                        .andExpect(status().isBadRequest())
+                        .andDo(print());
+            }
+
+            @Test
+            @DisplayName("공백뿐인 이름이나 메이커로 바꾸려 하면 400(Bad Request)를 응답합니다.")
+            void it_reject_blank_fields() throws Exception {
+                mockMvc.perform(patch("/products/1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"   \"}"))
+                        .andExpect(status().isBadRequest())
+                        .andDo(print());
+
+                mockMvc.perform(put("/products/1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"maker\":\"\"}"))
+                        .andExpect(status().isBadRequest())
+                        .andDo(print());
+
+                verify(productService, never()).updateProduct(any(), any());
+            }
+        }
+
         @Nested
         @DisplayName("등록된 Product의 Id만 주어진다면")
         class Context_with_id {
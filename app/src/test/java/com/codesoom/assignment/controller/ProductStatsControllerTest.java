@@ -0,0 +1,81 @@
+package com.codesoom.assignment.controller;
+
+import com.codesoom.assignment.dto.ProductStats;
+import com.codesoom.assignment.service.ProductStatistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("ProductStatsController 클래스")
+class ProductStatsControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    ProductStatistics productStatistics;
+
+    @Nested
+    @DisplayName("GET /products/stats 요청은")
+    class Describe_summary {
+
+        @Test
+        @DisplayName("200(Ok)와 가격 통계를 응답합니다.")
+        void it_return_ok_and_summary() throws Exception {
+            given(productStatistics.getSummary()).willReturn(new ProductStats(2, 1000, 3000, 2000.0));
+
+            mockMvc.perform(get("/products/stats"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.count").value(2))
+                    .andExpect(jsonPath("$.averagePrice").value(2000.0))
+                    .andDo(print());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /products/stats/makers 요청은")
+    class Describe_makers {
+
+        @Test
+        @DisplayName("200(Ok)와 메이커별 Product 개수를 응답합니다.")
+        void it_return_ok_and_maker_counts() throws Exception {
+            given(productStatistics.getMakerCounts()).willReturn(Map.of("메이커", 2L));
+
+            mockMvc.perform(get("/products/stats/makers"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.메이커").value(2))
+                    .andDo(print());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /products/stats/prices 요청은")
+    class Describe_prices {
+
+        @Test
+        @DisplayName("200(Ok)와 가격 히스토그램을 응답합니다.")
+        void it_return_ok_and_histogram() throws Exception {
+            given(productStatistics.getPriceHistogram()).willReturn(Map.of(0, 2L));
+
+            mockMvc.perform(get("/products/stats/prices"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.0").value(2))
+                    .andDo(print());
+        }
+    }
+}
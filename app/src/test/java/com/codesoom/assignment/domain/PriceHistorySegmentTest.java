@@ -0,0 +1,84 @@
+package com.codesoom.assignment.domain;
+
+import com.codesoom.assignment.dto.PriceChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PriceHistorySegment 클래스")
+class PriceHistorySegmentTest {
+
+    private static final long STARTED_AT = 1_600_000_000_000L;
+
+    private PriceHistorySegment segment;
+
+    @BeforeEach
+    void setUp() {
+        segment = new PriceHistorySegment(1L, "default", STARTED_AT);
+    }
+
+    @Nested
+    @DisplayName("append 메소드는")
+    class Describe_append {
+
+        @Test
+        @DisplayName("이어 붙인 변경을 순서대로 다시 읽습니다.")
+        void it_round_trip_changes() {
+            segment.append(STARTED_AT, 1000);
+            segment.append(STARTED_AT + 60_000, 900);
+            segment.append(STARTED_AT + 120_000, Integer.MAX_VALUE);
+            segment.append(STARTED_AT + 180_000, 0);
+
+            assertThat(segment.changes())
+                    .extracting(PriceChange::getPrice)
+                    .containsExactly(1000, 900, Integer.MAX_VALUE, 0);
+            assertThat(segment.changes())
+                    .extracting(PriceChange::getChangedAt)
+                    .containsExactly(Instant.ofEpochMilli(STARTED_AT), Instant.ofEpochMilli(STARTED_AT + 60_000),
+                            Instant.ofEpochMilli(STARTED_AT + 120_000), Instant.ofEpochMilli(STARTED_AT + 180_000));
+            assertThat(segment.getLastAt()).isEqualTo(STARTED_AT + 180_000);
+            assertThat(segment.getLastPrice()).isZero();
+        }
+
+        @Test
+        @DisplayName("작은 변경은 몇 바이트로 저장합니다.")
+        void it_store_deltas_compactly() {
+            for (int i = 0; i < 100; i++) {
+                segment.append(STARTED_AT + i * 1000L, 10000 + i * 10);
+            }
+
+            assertThat(segment.getEntryCount()).isEqualTo(100);
+            assertThat(segment.getData().length).isLessThan(100 * 4);
+        }
+
+        @Test
+        @DisplayName("직전 변경보다 이른 시각은 직전 변경 시각으로 기록합니다.")
+        void it_keep_time_order() {
+            segment.append(STARTED_AT + 1000, 1000);
+            segment.append(STARTED_AT, 2000);
+
+            assertThat(segment.changes())
+                    .extracting(PriceChange::getChangedAt)
+                    .containsOnly(Instant.ofEpochMilli(STARTED_AT + 1000));
+        }
+
+        @Test
+        @DisplayName("가득 차면 구간을 닫고 false를 리턴합니다.")
+        void it_seal_full_segment() {
+            int appended = 0;
+            while (segment.append(STARTED_AT + appended, appended % 2 == 0 ? 0 : Integer.MAX_VALUE)) {
+                appended++;
+            }
+
+            assertThat(segment.isSealed()).isTrue();
+            assertThat(segment.getData().length).isLessThanOrEqualTo(PriceHistorySegment.MAX_BYTES);
+            assertThat(segment.changes()).hasSize(appended);
+            assertThat(segment.append(STARTED_AT + appended, 0)).isFalse();
+        }
+    }
+}
@@ -21,4 +21,23 @@ class ProductTest {
         assertThat(product).isNotNull();
         assertThat(product.getName()).isEqualTo("제품");
     }
+
+    @Test
+    @DisplayName("가격만 바뀐 새 Product 객체를 생성합니다.")
+    void withPrice() {
+        Product product = Product.builder()
+                .name("제품")
+                .maker("메이커")
+                .price(1000)
+                .image("http://test.com/test.jpg")
+                .build();
+        product.setId(1L);
+
+        Product repriced = product.withPrice(2000);
+
+        assertThat(repriced).isNotSameAs(product);
+        assertThat(repriced.getId()).isEqualTo(1L);
+        assertThat(repriced.getPrice()).isEqualTo(2000);
+        assertThat(product.getPrice()).isEqualTo(1000);
+    }
 }
@@ -0,0 +1,63 @@
+package com.codesoom.assignment.grpc;
+
+import com.codesoom.assignment.service.ProductService;
+import com.codesoom.assignment.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("ProductGrpcServer 클래스")
+class ProductGrpcServerTest {
+
+    private ProductGrpcServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = new ProductGrpcServer(0, 1, 1000, new ProductGrpcService(mock(ProductService.class), 3),
+                new GrpcTenantInterceptor(Set.of(TenantContext.DEFAULT_TENANT)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server.isRunning()) {
+            server.stop();
+        }
+    }
+
+    @Nested
+    @DisplayName("컨텍스트를 새로 고칠 때는")
+    class Context_on_refresh {
+
+        @Test
+        @DisplayName("자동으로 시작하지 않는다.")
+        void it_do_not_start() {
+            assertThat(server.isAutoStartup()).isFalse();
+            assertThat(server.isRunning()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("ApplicationReadyEvent를 받으면")
+    class Context_on_ready {
+
+        @Test
+        @DisplayName("호출을 받기 시작하고, 다시 받아도 한 번만 시작한다.")
+        void it_start_once() {
+            ApplicationReadyEvent event = mock(ApplicationReadyEvent.class);
+
+            server.onApplicationEvent(event);
+            server.onApplicationEvent(event);
+
+            assertThat(server.isRunning()).isTrue();
+            assertThat(server.getPort()).isPositive();
+        }
+    }
+}
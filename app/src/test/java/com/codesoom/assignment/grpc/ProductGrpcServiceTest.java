@@ -0,0 +1,225 @@
+package com.codesoom.assignment.grpc;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.exception.ProductNotFoundException;
+import com.codesoom.assignment.exception.TenantQuotaExceededException;
+import com.codesoom.assignment.grpc.proto.BatchGetProductsRequest;
+import com.codesoom.assignment.grpc.proto.BatchGetProductsResponse;
+import com.codesoom.assignment.grpc.proto.GetProductRequest;
+import com.codesoom.assignment.grpc.proto.ListProductsRequest;
+import com.codesoom.assignment.grpc.proto.ProductMessage;
+import com.codesoom.assignment.grpc.proto.ProductReadServiceGrpc;
+import com.codesoom.assignment.service.ProductService;
+import com.codesoom.assignment.tenant.TenantContext;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("ProductGrpcService 클래스")
+class ProductGrpcServiceTest {
+
+    private ProductService productService;
+
+    private Server server;
+
+    private ManagedChannel channel;
+
+    private ProductReadServiceGrpc.ProductReadServiceBlockingStub stub;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        productService = mock(ProductService.class);
+
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(ServerInterceptors.intercept(new ProductGrpcService(productService, 3),
+                        new GrpcTenantInterceptor(Set.of(TenantContext.DEFAULT_TENANT, "a"))))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        stub = ProductReadServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    private Product product(Long id, Integer price) {
+        Product product = Product.builder()
+                .name("테스트 제품 " + id)
+                .maker("테스트 메이커")
+                .price(price)
+                .build();
+        product.setId(id);
+        return product;
+    }
+
+    private ProductReadServiceGrpc.ProductReadServiceBlockingStub withTenant(String tenant) {
+        Metadata headers = new Metadata();
+        headers.put(GrpcTenantInterceptor.TENANT_KEY, tenant);
+        return MetadataUtils.attachHeaders(stub, headers);
+    }
+
+    @Nested
+    @DisplayName("GetProduct 호출은")
+    class Describe_getProduct {
+
+        @Test
+        @DisplayName("등록된 Product를 응답합니다.")
+        void it_return_product() {
+            given(productService.getProduct(1L)).willReturn(product(1L, 0));
+
+            ProductMessage message = stub.getProduct(GetProductRequest.newBuilder().setId(1L).build());
+
+            assertThat(message.getName()).isEqualTo("테스트 제품 1");
+            assertThat(message.hasPrice()).isTrue();
+            assertThat(message.getPrice().getValue()).isZero();
+            assertThat(message.getImage()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("등록되지 않은 Product라면 NOT_FOUND로 응답합니다.")
+        void it_return_not_found() {
+            given(productService.getProduct(9L)).willThrow(new ProductNotFoundException(9L));
+
+            assertThatThrownBy(() -> stub.getProduct(GetProductRequest.newBuilder().setId(9L).build()))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class, e -> {
+                        assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND);
+                        assertThat(e.getStatus().getDescription()).isEqualTo("Product not found: 9");
+                    });
+        }
+
+        @Test
+        @DisplayName("tenant 커넥션 한도를 넘으면 RESOURCE_EXHAUSTED로 응답합니다.")
+        void it_return_resource_exhausted() {
+            given(productService.getProduct(1L)).willThrow(
+                    new CannotCreateTransactionException("no connection", new TenantQuotaExceededException("a")));
+
+            assertThatThrownBy(() -> stub.getProduct(GetProductRequest.newBuilder().setId(1L).build()))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class, e ->
+                            assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED));
+        }
+
+        @Test
+        @DisplayName("x-tenant-id 메타데이터의 tenant로 조회합니다.")
+        void it_use_tenant_from_metadata() {
+            List<String> tenants = new ArrayList<>();
+            given(productService.getProduct(1L)).will(invocation -> {
+                tenants.add(TenantContext.get());
+                return product(1L, 1000);
+            });
+
+            withTenant("a").getProduct(GetProductRequest.newBuilder().setId(1L).build());
+            stub.getProduct(GetProductRequest.newBuilder().setId(1L).build());
+
+            assertThat(tenants).containsExactly("a", TenantContext.DEFAULT_TENANT);
+        }
+
+        @Test
+        @DisplayName("등록되지 않은 tenant라면 서비스를 호출하지 않고 INVALID_ARGUMENT로 응답합니다.")
+        void it_reject_unknown_tenant() {
+            assertThatThrownBy(() -> withTenant("b").getProduct(GetProductRequest.newBuilder().setId(1L).build()))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class, e ->
+                            assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT));
+            verify(productService, never()).getProduct(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("BatchGetProducts 호출은")
+    class Describe_batchGetProducts {
+
+        @Test
+        @DisplayName("찾은 Product는 요청 순서대로, 찾지 못한 id는 따로 응답합니다.")
+        void it_return_found_and_missing() {
+            given(productService.getProductsByIds(any())).willReturn(List.of(product(1L, 1000), product(3L, null)));
+
+            BatchGetProductsResponse response = stub.batchGetProducts(
+                    BatchGetProductsRequest.newBuilder().addAllIds(List.of(3L, 2L, 1L, 3L)).build());
+
+            assertThat(response.getProductsList()).extracting(ProductMessage::getId).containsExactly(3L, 1L);
+            assertThat(response.getProducts(0).hasPrice()).isFalse();
+            assertThat(response.getMissingIdsList()).containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("최대 개수를 넘는 id가 주어지면 INVALID_ARGUMENT로 응답합니다.")
+        void it_reject_too_many_ids() {
+            assertThatThrownBy(() -> stub.batchGetProducts(
+                    BatchGetProductsRequest.newBuilder().addAllIds(List.of(1L, 2L, 3L, 4L)).build()))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class, e ->
+                            assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT));
+        }
+    }
+
+    @Nested
+    @DisplayName("ListProducts 호출은")
+    class Describe_listProducts {
+
+        @Test
+        @DisplayName("tenant의 모든 Product를 max-batch-size개씩 id 순서로 읽어 스트림으로 응답합니다.")
+        void it_stream_products_by_pages() {
+            given(productService.getProductsAfter(0L, 3))
+                    .willReturn(List.of(product(1L, 1000), product(2L, 2000), product(3L, 3000)));
+            given(productService.getProductsAfter(3L, 3)).willReturn(List.of(product(4L, 4000)));
+
+            List<ProductMessage> messages = new ArrayList<>();
+            stub.listProducts(ListProductsRequest.getDefaultInstance()).forEachRemaining(messages::add);
+
+            assertThat(messages).extracting(ProductMessage::getId).containsExactly(1L, 2L, 3L, 4L);
+            verify(productService, never()).getProducts();
+        }
+
+        @Test
+        @DisplayName("Product가 없으면 빈 스트림으로 응답합니다.")
+        void it_complete_empty_stream() {
+            given(productService.getProductsAfter(0L, 3)).willReturn(List.of());
+
+            assertThat(stub.listProducts(ListProductsRequest.getDefaultInstance()).hasNext()).isFalse();
+        }
+
+        @Test
+        @DisplayName("다음 페이지를 읽다 실패하면 보낸 뒤라도 오류 상태로 끝냅니다.")
+        void it_fail_stream_on_page_error() {
+            given(productService.getProductsAfter(0L, 3))
+                    .willReturn(List.of(product(1L, 1000), product(2L, 2000), product(3L, 3000)));
+            given(productService.getProductsAfter(3L, 3)).willThrow(
+                    new CannotCreateTransactionException("no connection", new TenantQuotaExceededException("a")));
+
+            List<ProductMessage> messages = new ArrayList<>();
+            assertThatThrownBy(() -> stub.listProducts(ListProductsRequest.getDefaultInstance())
+                    .forEachRemaining(messages::add))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class, e ->
+                            assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED));
+            assertThat(messages).hasSize(3);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.codesoom.assignment.query;
+
+import com.codesoom.assignment.exception.QueryBudgetExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("QueryBudgetFilter 클래스")
+class QueryBudgetFilterTest {
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private final FilterChain twoQueries = (request, response) -> {
+        QueryCounter.record(1_000_000);
+        QueryCounter.record(1_000_000);
+    };
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("GET", "/products/1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Nested
+    @DisplayName("예산을 넘는 요청이 주어진다면")
+    class Context_over_budget {
+
+        @BeforeEach
+        void prepare() {
+            request.setAttribute(QueryBudgetFilter.BUDGET_ATTRIBUTE, 1);
+        }
+
+        @Test
+        @DisplayName("strict 모드에서는 응답을 보내기 전에 QueryBudgetExceededException을 던진다.")
+        void it_throw_in_strict_mode() {
+            FilterChain writeAndFlush = (request, response) -> {
+                twoQueries.doFilter(request, response);
+                response.getOutputStream().write("[]".getBytes());
+                response.flushBuffer();
+            };
+
+            assertThatThrownBy(() -> new QueryBudgetFilter(true).doFilter(request, response, writeAndFlush))
+                    .isInstanceOf(QueryBudgetExceededException.class)
+                    .hasMessageContaining("GET /products/1");
+            assertThat(response.isCommitted()).isFalse();
+            assertThat(response.getContentLength()).isZero();
+        }
+
+        @Test
+        @DisplayName("strict 모드가 아니면 경고만 남기고 실행 개수와 시간을 기록한다.")
+        void it_warn_and_record() throws Exception {
+            new QueryBudgetFilter(false).doFilter(request, response, twoQueries);
+
+            assertThat(request.getAttribute(QueryBudgetFilter.COUNT_ATTRIBUTE)).isEqualTo(2L);
+            assertThat(request.getAttribute(QueryBudgetFilter.ELAPSED_ATTRIBUTE)).isEqualTo(2L);
+        }
+    }
+
+    @Nested
+    @DisplayName("예산 안의 요청이 주어진다면")
+    class Context_within_budget {
+
+        @Test
+        @DisplayName("실행 개수를 기록하고 모아 둔 응답을 보낸다.")
+        void it_record_count() throws Exception {
+            request.setAttribute(QueryBudgetFilter.BUDGET_ATTRIBUTE, 2);
+
+            new QueryBudgetFilter(true).doFilter(request, response, (request, response) -> {
+                twoQueries.doFilter(request, response);
+                response.getOutputStream().write("[]".getBytes());
+            });
+
+            assertThat(request.getAttribute(QueryBudgetFilter.COUNT_ATTRIBUTE)).isEqualTo(2L);
+            assertThat(response.getContentAsString()).isEqualTo("[]");
+        }
+
+        @Test
+        @DisplayName("예산이 없으면 실행 개수만 기록한다.")
+        void it_record_count_without_budget() throws Exception {
+            new QueryBudgetFilter(true).doFilter(request, response, twoQueries);
+
+            assertThat(request.getAttribute(QueryBudgetFilter.COUNT_ATTRIBUTE)).isEqualTo(2L);
+        }
+    }
+
+    @Nested
+    @DisplayName("요청 밖에서 기록하면")
+    class Context_outside_request {
+
+        @Test
+        @DisplayName("아무것도 기록하지 않는다.")
+        void it_ignore_record() {
+            QueryCounter.record(1_000_000);
+
+            assertThat(QueryCounter.stop()).isNull();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.codesoom.assignment.query;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "product.query-budget.strict=true")
+@AutoConfigureMockMvc
+@DisplayName("QueryBudget 적용")
+class QueryBudgetIntegrationTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Nested
+    @DisplayName("GET /products/{id} 요청은")
+    class Describe_detail {
+
+        private Long givenId;
+
+        @BeforeEach
+        void prepare() {
+            givenId = productRepository.save(Product.builder()
+                    .name("테스트 제품")
+                    .maker("테스트 메이커")
+                    .price(1000)
+                    .build()).getId();
+        }
+
+        @Test
+        @DisplayName("SQL 문 하나로 응답합니다.")
+        void it_execute_one_query() throws Exception {
+            mockMvc.perform(get("/products/" + givenId))
+                    .andExpect(status().isOk())
+                    .andExpect(request().attribute(QueryBudgetFilter.COUNT_ATTRIBUTE, 1L))
+                    .andExpect(request().attribute(QueryBudgetFilter.BUDGET_ATTRIBUTE, 1))
+                    .andDo(print());
+        }
+    }
+
+    @Nested
+    @DisplayName("PUT, PATCH /products/{id} 요청은")
+    class Describe_update {
+
+        private Long givenId;
+
+        @BeforeEach
+        void prepare() {
+            givenId = productRepository.save(Product.builder()
+                    .name("테스트 제품")
+                    .maker("테스트 메이커")
+                    .price(1000)
+                    .build()).getId();
+        }
+
+        @Test
+        @DisplayName("PATCH는 이전 값을 함께 읽는 UPDATE 하나로 응답합니다.")
+        void it_patch_with_one_query() throws Exception {
+            mockMvc.perform(patch("/products/" + givenId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"price\":2000}"))
+                    .andExpect(status().isOk())
+                    .andExpect(request().attribute(QueryBudgetFilter.COUNT_ATTRIBUTE, 1L))
+                    .andDo(print());
+        }
+
+        @Test
+        @DisplayName("PUT도 이전 값을 함께 읽는 UPDATE 하나로 응답합니다.")
+        void it_put_with_one_query() throws Exception {
+            mockMvc.perform(put("/products/" + givenId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\":\"새 이름\",\"maker\":\"새 메이커\",\"price\":2000}"))
+                    .andExpect(status().isOk())
+                    .andExpect(request().attribute(QueryBudgetFilter.COUNT_ATTRIBUTE, 1L))
+                    .andDo(print());
+        }
+    }
+
+    @Nested
+    @DisplayName("DELETE /products/{id} 요청은")
+    class Describe_delete {
+
+        private Long givenId;
+
+        @BeforeEach
+        void prepare() {
+            givenId = productRepository.save(Product.builder()
+                    .name("테스트 제품")
+                    .maker("테스트 메이커")
+                    .price(1000)
+                    .build()).getId();
+        }
+
+        @Test
+        @DisplayName("이전 값을 함께 읽는 삭제 표시 UPDATE 하나로 응답합니다.")
+        void it_delete_with_one_query() throws Exception {
+            mockMvc.perform(delete("/products/" + givenId))
+                    .andExpect(status().isNoContent())
+                    .andExpect(request().attribute(QueryBudgetFilter.COUNT_ATTRIBUTE, 1L))
+                    .andDo(print());
+        }
+    }
+
+    @Nested
+    @DisplayName("QueryBudgetInterceptor는")
+    class Describe_interceptor {
+
+        @Test
+        @DisplayName("HandlerMethod가 아닌 handler에는 예산을 정하지 않는다.")
+        void it_skip_non_handler_method() {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+
+            assertThat(new QueryBudgetInterceptor().preHandle(request, null, new Object())).isTrue();
+            assertThat(request.getAttribute(QueryBudgetFilter.BUDGET_ATTRIBUTE)).isNull();
+        }
+    }
+}
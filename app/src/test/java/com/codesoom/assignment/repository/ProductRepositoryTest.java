@@ -1,6 +1,7 @@
 package com.codesoom.assignment.repository;
 
 import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.tenant.TenantContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -8,7 +9,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -21,6 +26,9 @@ class ProductRepositoryTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Nested
     @DisplayName("findAll 메소드는")
     class Describe_findAll {
@@ -86,6 +94,38 @@ class ProductRepositoryTest {
         }
     }
 
+    @Nested
+    @DisplayName("findAllByTenantId 메소드는")
+    class Describe_findAllByTenantId {
+
+        private Product otherTenantProduct;
+
+        @BeforeEach
+        void prepare() {
+            productRepository.deleteAll();
+            productRepository.save(getTestProduct());
+            otherTenantProduct = getTestProduct();
+            otherTenantProduct.setTenantId("other");
+            otherTenantProduct = productRepository.save(otherTenantProduct);
+        }
+
+        @Test
+        @DisplayName("주어진 tenant의 Product만 리턴합니다.")
+        void it_return_products_of_tenant() {
+            assertThat(productRepository.findAllByTenantId("other"))
+                    .extracting(Product::getId)
+                    .containsExactly(otherTenantProduct.getId());
+            assertThat(productRepository.findAllByTenantId(TenantContext.DEFAULT_TENANT)).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("다른 tenant의 id로는 Product를 찾지 못합니다.")
+        void it_hide_products_of_other_tenant() {
+            assertThat(productRepository.findByIdAndTenantId(otherTenantProduct.getId(), TenantContext.DEFAULT_TENANT))
+                    .isEmpty();
+        }
+    }
+
     @Nested
     @DisplayName("save 메소드는")
     class Describe_save {
@@ -143,6 +183,129 @@ class ProductRepositoryTest {
 
                 assertThat(productRepository.findAll()).hasSize(0);
             }
+
+            @Test
+            @DisplayName("행은 지우지 않고 삭제 표시만 남깁니다.")
+            void it_mark_product_deleted() {
+                productRepository.delete(givenProduct);
+
+                assertThat(productRepository.findById(givenProduct.getId())).isEmpty();
+                assertThat(productRepository.findArchivableIds(Integer.MAX_VALUE))
+                        .extracting(Number::longValue)
+                        .contains(givenProduct.getId());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("softDeleteById 메소드는")
+    class Describe_softDeleteById {
+
+        private Product givenProduct;
+
+        @BeforeEach
+        void prepare() {
+            givenProduct = productRepository.save(getTestProduct());
+        }
+
+        @Test
+        @DisplayName("삭제 표시를 하고 삭제 전 값을 리턴합니다.")
+        void it_return_deleted_row() {
+            ProductRepository.ProductRow row = productRepository
+                    .softDeleteById(givenProduct.getId(), TenantContext.DEFAULT_TENANT).get();
+
+            assertThat(row.toProduct().getName()).isEqualTo(givenProduct.getName());
+            assertThat(productRepository.findById(givenProduct.getId())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("이미 삭제된 Product라면 빈값을 리턴합니다.")
+        void it_return_empty_for_deleted_product() {
+            productRepository.softDeleteById(givenProduct.getId(), TenantContext.DEFAULT_TENANT);
+
+            assertThat(productRepository.softDeleteById(givenProduct.getId(), TenantContext.DEFAULT_TENANT))
+                    .isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("updatePartially 메소드는")
+    class Describe_updatePartially {
+
+        private Product givenProduct;
+
+        @BeforeEach
+        void prepare() {
+            givenProduct = productRepository.save(getTestProduct());
+        }
+
+        @Test
+        @DisplayName("주어진 값만 수정하고 수정 전 값을 리턴합니다.")
+        void it_update_supplied_fields() {
+            ProductRepository.ProductRow row = productRepository
+                    .updatePartially(givenProduct.getId(), TenantContext.DEFAULT_TENANT, null, null, 5000, null).get();
+
+            assertThat(row.getPrice()).isEqualTo(1000);
+
+            Product updatedProduct = productRepository.findById(givenProduct.getId()).get();
+            assertThat(updatedProduct.getPrice()).isEqualTo(5000);
+            assertThat(updatedProduct.getName()).isEqualTo(givenProduct.getName());
+        }
+
+        @Test
+        @DisplayName("등록되지 않은 Product라면 빈값을 리턴합니다.")
+        void it_return_empty_for_invalid_id() {
+            assertThat(productRepository.updatePartially(-1L, TenantContext.DEFAULT_TENANT, "이름", null, null, null))
+                    .isEmpty();
+        }
+
+        @Test
+        @DisplayName("다른 tenant의 Product라면 수정하지 않고 빈값을 리턴합니다.")
+        void it_return_empty_for_other_tenant() {
+            assertThat(productRepository.updatePartially(givenProduct.getId(), "other", "이름", null, null, null))
+                    .isEmpty();
+            assertThat(productRepository.findById(givenProduct.getId()).get().getName())
+                    .isEqualTo(givenProduct.getName());
+        }
+    }
+
+    @Nested
+    @DisplayName("purgeArchivable 메소드는")
+    class Describe_purgeArchivable {
+
+        @Nested
+        @DisplayName("오래 변경되지 않은 살아있는 Product의 id가 함께 주어진다면")
+        class Context_with_ids {
+
+            Product deletedProduct;
+
+            Product liveProduct;
+
+            @BeforeEach
+            void prepare() {
+                productRepository.deleteAll();
+                deletedProduct = productRepository.save(getTestProduct());
+                productRepository.delete(deletedProduct);
+                liveProduct = productRepository.save(getTestProduct());
+                jdbcTemplate.update("UPDATE product SET updated_at = ? WHERE id = ?",
+                        LocalDateTime.now().minusYears(1), liveProduct.getId());
+            }
+
+            @Test
+            @Transactional
+            @DisplayName("삭제 표시된 Product만 지우고 지운 행을 리턴합니다.")
+            void it_purge_only_archivable_products() {
+                List<ProductRepository.ArchivableRow> rows = productRepository.purgeArchivable(
+                        List.of(deletedProduct.getId(), liveProduct.getId()));
+
+                assertThat(rows).extracting(ProductRepository.ArchivableRow::getId)
+                        .containsExactly(deletedProduct.getId());
+                assertThat(rows.get(0).getDeletedAt()).isNotNull();
+                assertThat(productRepository.findById(liveProduct.getId())).isPresent();
+                assertThat(productRepository.findArchivableIds(Integer.MAX_VALUE))
+                        .extracting(Number::longValue)
+                        .doesNotContain(deletedProduct.getId());
+            }
         }
     }
 
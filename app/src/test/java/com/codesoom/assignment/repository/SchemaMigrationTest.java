@@ -0,0 +1,85 @@
+package com.codesoom.assignment.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migration;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@DisplayName("Flyway 마이그레이션")
+class SchemaMigrationTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("엔티티와 일치하는 스키마와 조회 컬럼 인덱스를 만듭니다.")
+    void it_create_schema_with_indexes() {
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'PRODUCT'", String.class))
+                .contains("IDX_PRODUCT_TENANT", "IDX_PRODUCT_MAKER", "IDX_PRODUCT_PRICE", "IDX_PRODUCT_UPDATED_AT",
+                        "IDX_PRODUCT_DELETED_AT");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'PRICE_HISTORY_SEGMENT'",
+                String.class))
+                .contains("IDX_PRICE_HISTORY_PRODUCT", "IDX_PRICE_HISTORY_WINDOW");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\"", Integer.class))
+                .isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("보관된 Product도 Product와 같은 tenant 컬럼을 가집니다.")
+    void it_create_archive_tenant_column() {
+        assertThat(jdbcTemplate.queryForMap("SELECT IS_NULLABLE, CHARACTER_MAXIMUM_LENGTH, COLUMN_DEFAULT "
+                + "FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'PRODUCT_ARCHIVE' AND COLUMN_NAME = 'TENANT_ID'"))
+                .containsEntry("IS_NULLABLE", "NO")
+                .containsEntry("CHARACTER_MAXIMUM_LENGTH", 32)
+                .containsEntry("COLUMN_DEFAULT", "'default'");
+    }
+
+    @Test
+    @DisplayName("ddl-auto로 만든 이전 스키마가 있어도 production 프로필의 baseline으로 모든 마이그레이션을 적용합니다.")
+    void it_migrate_legacy_schema() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        legacy.execute("CREATE TABLE product (id BIGINT GENERATED BY DEFAULT AS IDENTITY, image VARCHAR(255), "
+                + "maker VARCHAR(255), name VARCHAR(255), price INTEGER, PRIMARY KEY (id))");
+        legacy.update("INSERT INTO product (name, maker, price, image) VALUES ('쥐돌이', '냥이네', 5000, '')");
+        legacy.execute("CREATE TABLE product_archive (id BIGINT, name VARCHAR(255), tenant_id VARCHAR(255), "
+                + "deleted_at TIMESTAMP, archived_at TIMESTAMP, PRIMARY KEY (id))");
+        legacy.update("INSERT INTO product_archive (id, name) VALUES (1, '낚싯대')");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        assertThat(legacy.queryForObject("SELECT tenant_id FROM product WHERE name = '쥐돌이'", String.class))
+                .isEqualTo("default");
+        assertThat(legacy.queryForList(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'PRODUCT'", String.class))
+                .contains("IDX_PRODUCT_TENANT", "IDX_PRODUCT_UPDATED_AT", "IDX_PRODUCT_DELETED_AT");
+        assertThat(legacy.queryForObject("SELECT tenant_id FROM product_archive WHERE id = 1", String.class))
+                .isEqualTo("default");
+        assertThat(legacy.queryForObject("SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_NAME = 'PRODUCT_ARCHIVE' AND COLUMN_NAME = 'TENANT_ID'", String.class))
+                .isEqualTo("NO");
+        assertThat(legacy.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'PRICE_HISTORY_SEGMENT'",
+                Integer.class))
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,134 @@
+package com.codesoom.assignment.request;
+
+import com.codesoom.assignment.exception.RequestBodyTooLargeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RequestBodyLimitFilter 클래스")
+class RequestBodyLimitFilterTest {
+
+    private static final int MAX_BYTES = 8;
+
+    private final RequestBodyLimitFilter filter = new RequestBodyLimitFilter(MAX_BYTES);
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private final StringBuilder body = new StringBuilder();
+
+    private final FilterChain readBody = (request, response) ->
+            body.append(StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8));
+
+    private final FilterChain readLines = (request, response) ->
+            body.append(request.getReader().readLine());
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("POST", "/products");
+        response = new MockHttpServletResponse();
+    }
+
+    @Nested
+    @DisplayName("제한 이내의 본문이 주어진다면")
+    class Context_within_limit {
+
+        @BeforeEach
+        void prepare() {
+            request.setContent("{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Test
+        @DisplayName("본문을 그대로 읽을 수 있다.")
+        void it_read_body() throws Exception {
+            filter.doFilter(request, response, readBody);
+
+            assertThat(body).hasToString("{\"a\":1}");
+        }
+
+        @Test
+        @DisplayName("Reader로도 읽을 수 있다.")
+        void it_read_body_with_reader() throws Exception {
+            filter.doFilter(request, response, readLines);
+
+            assertThat(body).hasToString("{\"a\":1}");
+        }
+    }
+
+    @Nested
+    @DisplayName("Content-Length가 제한을 넘는다면")
+    class Context_over_content_length {
+
+        @BeforeEach
+        void prepare() {
+            request.setContent("{\"name\":\"too long\"}".getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Test
+        @DisplayName("본문을 읽기 전에 RequestBodyTooLargeException을 던진다.")
+        void it_throw_before_reading() {
+            assertThatThrownBy(() -> filter.doFilter(request, response, readBody))
+                    .isInstanceOf(RequestBodyTooLargeException.class);
+            assertThat(body).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("길이를 모르는 본문이 제한을 넘는다면")
+    class Context_chunked_over_limit {
+
+        ServletInputStream chunked(InputStream source) {
+            return new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return source.read();
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return false;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                }
+            };
+        }
+
+        @Test
+        @DisplayName("제한을 넘는 순간 RequestBodyTooLargeException을 던진다.")
+        void it_throw_while_reading() throws Exception {
+            RequestBodyLimitFilter.LimitedInputStream inputStream = new RequestBodyLimitFilter.LimitedInputStream(
+                    chunked(new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.UTF_8))), MAX_BYTES);
+
+            assertThat(inputStream.read(new byte[4], 0, 4)).isEqualTo(4);
+            assertThat(inputStream.read()).isEqualTo('4');
+            assertThat(inputStream.isReady()).isTrue();
+            assertThat(inputStream.isFinished()).isFalse();
+            assertThatThrownBy(() -> inputStream.read(new byte[8], 0, 8))
+                    .isInstanceOf(RequestBodyTooLargeException.class)
+                    .hasMessageContaining(String.valueOf(MAX_BYTES));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.tenant.TenantContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@DisplayName("HotProductTracker 클래스")
+class HotProductTrackerTest {
+
+    @TempDir
+    Path directory;
+
+    @Nested
+    @DisplayName("hottest 메소드는")
+    class Describe_hottest {
+
+        @Test
+        @DisplayName("조회 수가 많은 id부터 limit 개를 리턴합니다.")
+        void it_return_most_viewed_ids() {
+            HotProductTracker tracker = new HotProductTracker("", 2);
+            tracker.record("a", 1L);
+            tracker.record("a", 2L);
+            tracker.record("a", 2L);
+            tracker.record("a", 3L);
+            tracker.record("a", 3L);
+            tracker.record("a", 3L);
+
+            assertThat(tracker.hottest()).containsExactly(entry("a", List.of(3L, 2L)));
+        }
+
+        @Test
+        @DisplayName("tenant별로 나누어 리턴합니다.")
+        void it_group_ids_by_tenant() {
+            HotProductTracker tracker = new HotProductTracker("", 10);
+            tracker.record("a", 1L);
+            tracker.record("b", 1L);
+            tracker.record("b", 1L);
+
+            assertThat(tracker.hottest()).containsExactly(entry("b", List.of(1L)), entry("a", List.of(1L)));
+        }
+
+        @Test
+        @DisplayName("추적 한도를 넘는 새 id는 세지 않습니다.")
+        void it_ignore_ids_over_capacity() {
+            HotProductTracker tracker = new HotProductTracker("", 1);
+            for (long id = 1; id <= 11; id++) {
+                tracker.record("a", id);
+            }
+            tracker.record("a", 11L);
+
+            assertThat(tracker.hottest().get("a")).doesNotContain(11L);
+        }
+    }
+
+    @Nested
+    @DisplayName("save와 load 메소드는")
+    class Describe_save_and_load {
+
+        @Test
+        @DisplayName("기록한 id를 파일로 남기고 다시 읽습니다.")
+        void it_persist_hot_ids() {
+            String file = directory.resolve("hot/hot-products.txt").toString();
+            HotProductTracker tracker = new HotProductTracker(file, 10);
+            tracker.record("a", 7L);
+            tracker.record("a", 7L);
+            tracker.record("a", 5L);
+
+            tracker.save();
+
+            assertThat(new HotProductTracker(file, 10).load()).containsExactly(entry("a", List.of(7L, 5L)));
+        }
+
+        @Test
+        @DisplayName("조회가 없었다면 이전 기록을 지우지 않고, id만 남은 기록은 기본 tenant로 읽습니다.")
+        void it_keep_previous_file_without_hits() throws Exception {
+            Path file = Files.write(directory.resolve("hot-products.txt"), "1\n\n2\n".getBytes());
+
+            new HotProductTracker(file.toString(), 10).save();
+
+            assertThat(new HotProductTracker(file.toString(), 10).load())
+                    .containsExactly(entry(TenantContext.DEFAULT_TENANT, List.of(1L, 2L)));
+        }
+
+        @Test
+        @DisplayName("파일이 지정되지 않으면 빈 목록을 리턴합니다.")
+        void it_return_empty_without_file() {
+            HotProductTracker tracker = new HotProductTracker("", 10);
+            tracker.record("a", 1L);
+            tracker.save();
+
+            assertThat(tracker.load()).isEmpty();
+        }
+    }
+}
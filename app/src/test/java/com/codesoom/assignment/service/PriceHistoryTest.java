@@ -0,0 +1,291 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.domain.PriceHistorySegment;
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.dto.PriceChange;
+import com.codesoom.assignment.event.ProductChangedEvent;
+import com.codesoom.assignment.repository.PriceHistorySegmentRepository;
+import com.codesoom.assignment.tenant.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("PriceHistory 클래스")
+class PriceHistoryTest {
+
+    private static final long STARTED_AT = 1_600_000_000_000L;
+
+    private PriceHistorySegmentRepository segmentRepository;
+
+    private Clock clock;
+
+    private PriceHistory priceHistory;
+
+    private List<PriceHistorySegment> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        segmentRepository = mock(PriceHistorySegmentRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        given(transactionManager.getTransaction(any())).willAnswer(invocation -> new SimpleTransactionStatus());
+        given(segmentRepository.saveAll(any())).will(invocation -> {
+            Collection<PriceHistorySegment> segments = invocation.getArgument(0);
+            saved.addAll(segments);
+            return new ArrayList<>(segments);
+        });
+
+        clock = mock(Clock.class);
+        given(clock.millis()).willReturn(STARTED_AT, STARTED_AT + 1000, STARTED_AT + 2000, STARTED_AT + 3000);
+        priceHistory = new PriceHistory(segmentRepository, transactionManager, 2, 3, 2, clock);
+    }
+
+    private Product product(Integer price) {
+        Product product = Product.builder()
+                .name("테스트 제품")
+                .maker("테스트 메이커")
+                .price(price)
+                .build();
+        product.setId(1L);
+        return product;
+    }
+
+    private void changePrice(Integer before, Integer after) {
+        priceHistory.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.Type.UPDATED,
+                before == null ? null : product(before), product(after)));
+    }
+
+    @Nested
+    @DisplayName("onProductChanged 메소드는")
+    class Describe_onProductChanged {
+
+        @Test
+        @DisplayName("가격이 바뀐 변경만 기록할 목록에 넣는다.")
+        void it_queue_price_changes_only() {
+            changePrice(null, 1000);
+            changePrice(1000, 1000);
+            changePrice(1000, 2000);
+            priceHistory.onProductChanged(
+                    new ProductChangedEvent(1L, ProductChangedEvent.Type.DELETED, product(2000), null));
+
+            assertThat(priceHistory.pendingCount()).isEqualTo(2);
+            verify(segmentRepository, never()).saveAll(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("flush 메소드는")
+    class Describe_flush {
+
+        @Test
+        @DisplayName("열린 구간이 없으면 새 구간을 만들고, 최대 batch-size개씩 기록한다.")
+        void it_append_to_new_segment() {
+            changePrice(null, 1000);
+            changePrice(1000, 2000);
+            changePrice(2000, 3000);
+
+            assertThat(priceHistory.flush()).isEqualTo(2);
+
+            assertThat(priceHistory.pendingCount()).isEqualTo(1);
+            assertThat(saved).hasSize(1);
+            assertThat(saved.get(0).getTenantId()).isEqualTo(TenantContext.DEFAULT_TENANT);
+            assertThat(saved.get(0).changes()).extracting(PriceChange::getPrice).containsExactly(1000, 2000);
+        }
+
+        @Test
+        @DisplayName("열린 구간이 있으면 이어 붙인다.")
+        void it_append_to_open_segment() {
+            PriceHistorySegment open = new PriceHistorySegment(1L, TenantContext.DEFAULT_TENANT, STARTED_AT - 1000);
+            open.append(STARTED_AT - 1000, 500);
+            given(segmentRepository.findAllByProductIdInAndSealedFalse(any())).willReturn(List.of(open));
+            changePrice(500, 1000);
+
+            priceHistory.flush();
+
+            assertThat(saved).containsExactly(open);
+            assertThat(open.changes()).extracting(PriceChange::getPrice).containsExactly(500, 1000);
+        }
+
+        @Test
+        @DisplayName("한 Product의 열린 구간이 여럿이면 가장 최근 구간에 이어 붙이고 나머지는 닫는다.")
+        void it_seal_duplicate_open_segments() {
+            PriceHistorySegment older = new PriceHistorySegment(1L, TenantContext.DEFAULT_TENANT, STARTED_AT - 2000);
+            older.append(STARTED_AT - 2000, 300);
+            PriceHistorySegment newer = new PriceHistorySegment(1L, TenantContext.DEFAULT_TENANT, STARTED_AT - 1000);
+            newer.append(STARTED_AT - 1000, 500);
+            given(segmentRepository.findAllByProductIdInAndSealedFalse(any())).willReturn(List.of(newer, older));
+            changePrice(500, 1000);
+
+            assertThat(priceHistory.flush()).isEqualTo(1);
+
+            assertThat(saved).containsExactlyInAnyOrder(older, newer);
+            assertThat(older.isSealed()).isTrue();
+            assertThat(newer.isSealed()).isFalse();
+            assertThat(newer.changes()).extracting(PriceChange::getPrice).containsExactly(500, 1000);
+        }
+
+        @Test
+        @DisplayName("기록에 실패하면 변경을 남겨두고 다음에 다시 기록한다.")
+        void it_keep_changes_on_failure() {
+            given(segmentRepository.findAllByProductIdInAndSealedFalse(any()))
+                    .willThrow(new IllegalStateException("database is down"));
+            changePrice(null, 1000);
+
+            assertThatThrownBy(priceHistory::flush).isInstanceOf(IllegalStateException.class);
+
+            assertThat(priceHistory.pendingCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("기다리는 변경이 한도를 넘으면 새 변경을 버리고 개수를 센다.")
+        void it_drop_changes_over_limit() {
+            given(clock.millis()).willReturn(STARTED_AT);
+            changePrice(null, 1000);
+            changePrice(1000, 2000);
+            changePrice(2000, 3000);
+            changePrice(3000, 4000);
+
+            assertThat(priceHistory.pendingCount()).isEqualTo(3);
+            assertThat(priceHistory.droppedCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("종료할 때 기록에 실패해도 예외를 던지지 않는다.")
+        void it_survive_failure_on_shutdown() {
+            given(segmentRepository.findAllByProductIdInAndSealedFalse(any()))
+                    .willThrow(new IllegalStateException("database is down"));
+            changePrice(null, 1000);
+
+            priceHistory.shutdown();
+
+            assertThat(priceHistory.pendingCount()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("priceAt 메소드는")
+    class Describe_priceAt {
+
+        @BeforeEach
+        void prepare() {
+            PriceHistorySegment segment = new PriceHistorySegment(1L, TenantContext.DEFAULT_TENANT, STARTED_AT - 3000);
+            segment.append(STARTED_AT - 3000, 500);
+            segment.append(STARTED_AT - 2000, 700);
+            given(segmentRepository.findFirstByProductIdAndTenantIdAndFirstAtLessThanEqualOrderByFirstAtDesc(
+                    eq(1L), eq(TenantContext.DEFAULT_TENANT), anyLong())).willReturn(Optional.of(segment));
+        }
+
+        @Test
+        @DisplayName("주어진 시각에 적용되어 있던 가격을 리턴한다.")
+        void it_return_price_at_time() {
+            assertThat(priceHistory.priceAt(1L, Instant.ofEpochMilli(STARTED_AT - 2500)).get().getPrice())
+                    .isEqualTo(500);
+            assertThat(priceHistory.priceAt(1L, Instant.ofEpochMilli(STARTED_AT - 2000)).get().getPrice())
+                    .isEqualTo(700);
+        }
+
+        @Test
+        @DisplayName("아직 기록하지 않은 변경도 포함한다.")
+        void it_include_pending_changes() {
+            changePrice(700, 900);
+
+            assertThat(priceHistory.priceAt(1L, Instant.ofEpochMilli(STARTED_AT)).get().getPrice())
+                    .isEqualTo(900);
+            assertThat(priceHistory.priceAt(1L, Instant.ofEpochMilli(STARTED_AT - 1)).get().getPrice())
+                    .isEqualTo(700);
+        }
+
+        @Test
+        @DisplayName("다른 tenant의 변경은 보지 않는다.")
+        void it_ignore_other_tenants() {
+            given(segmentRepository.findFirstByProductIdAndTenantIdAndFirstAtLessThanEqualOrderByFirstAtDesc(
+                    eq(1L), eq("other"), anyLong())).willReturn(Optional.empty());
+            changePrice(700, 900);
+
+            assertThat(TenantContext.call("other", () -> priceHistory.priceAt(1L, Instant.ofEpochMilli(STARTED_AT))))
+                    .isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("changesBetween 메소드는")
+    class Describe_changesBetween {
+
+        private PriceHistorySegment first;
+
+        private PriceHistorySegment second;
+
+        @BeforeEach
+        void prepare() {
+            first = new PriceHistorySegment(1L, TenantContext.DEFAULT_TENANT, STARTED_AT - 3000);
+            first.append(STARTED_AT - 3000, 500);
+            first.append(STARTED_AT - 1000, 700);
+            second = new PriceHistorySegment(2L, TenantContext.DEFAULT_TENANT, STARTED_AT - 2000);
+            second.append(STARTED_AT - 2000, 100);
+            given(segmentRepository.findAllOverlapping(anyString(), anyLong(), anyLong(), anyLong(), any()))
+                    .willReturn(List.of(first, second));
+        }
+
+        @Test
+        @DisplayName("기간 안의 변경 중 가장 이른 limit개를 시간 순서대로 리턴한다.")
+        void it_return_changes_in_window() {
+            changePrice(700, 900);
+
+            List<PriceChange> changes = priceHistory.changesBetween(
+                    Instant.ofEpochMilli(STARTED_AT - 2000), Instant.ofEpochMilli(STARTED_AT), 2);
+
+            assertThat(changes).extracting(PriceChange::getProductId).containsExactly(2L, 1L);
+            assertThat(changes).extracting(PriceChange::getPrice).containsExactly(100, 700);
+        }
+
+        @Test
+        @DisplayName("기록 중이라 큐와 구간에 함께 있는 변경은 한 번만 리턴한다.")
+        void it_return_flushing_change_once() {
+            given(clock.millis()).willReturn(STARTED_AT - 1000);
+            changePrice(500, 700);
+
+            List<PriceChange> changes = priceHistory.changesBetween(
+                    Instant.ofEpochMilli(STARTED_AT - 1000), Instant.ofEpochMilli(STARTED_AT), 10);
+
+            assertThat(changes).extracting(PriceChange::getPrice).containsExactly(700);
+        }
+    }
+
+    @Nested
+    @DisplayName("history 메소드는")
+    class Describe_history {
+
+        @Test
+        @DisplayName("한 Product의 기간 안 변경을 리턴한다.")
+        void it_return_product_history() {
+            PriceHistorySegment segment = new PriceHistorySegment(1L, TenantContext.DEFAULT_TENANT, STARTED_AT - 3000);
+            segment.append(STARTED_AT - 3000, 500);
+            given(segmentRepository.findOverlapping(eq(1L), anyString(), anyLong(), anyLong()))
+                    .willReturn(List.of(segment));
+
+            assertThat(priceHistory.history(1L, Instant.EPOCH, Instant.ofEpochMilli(STARTED_AT)))
+                    .extracting(PriceChange::getPrice)
+                    .containsExactly(500);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.event.PricesFlushedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("PriceUpdateBuffer 클래스")
+class PriceUpdateBufferTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private PriceUpdateBuffer priceUpdateBuffer;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        priceUpdateBuffer = new PriceUpdateBuffer(jdbcTemplate, eventPublisher, true);
+
+        product = Product.builder()
+                .name("테스트 제품")
+                .maker("테스트 메이커")
+                .price(1000)
+                .image("http://test.com/test.jpg")
+                .build();
+        product.setId(1L);
+    }
+
+    @Nested
+    @DisplayName("apply 메소드는")
+    class Describe_apply {
+
+        @Nested
+        @DisplayName("버퍼에 가격이 있다면")
+        class Context_with_pending_price {
+
+            @BeforeEach
+            void prepare() {
+                priceUpdateBuffer.offer(1L, 2000);
+                priceUpdateBuffer.offer(1L, 3000);
+            }
+
+            @Test
+            @DisplayName("마지막으로 들어온 가격이 반영된 Product를 리턴한다.")
+            void it_return_repriced_product() {
+                assertThat(priceUpdateBuffer.apply(product).getPrice()).isEqualTo(3000);
+                assertThat(priceUpdateBuffer.pendingCount()).isEqualTo(1);
+            }
+        }
+
+        @Nested
+        @DisplayName("버퍼에 가격이 없다면")
+        class Context_without_pending_price {
+
+            @BeforeEach
+            void prepare() {
+                priceUpdateBuffer.offer(1L, 2000);
+                priceUpdateBuffer.discard(1L);
+            }
+
+            @Test
+            @DisplayName("주어진 Product를 그대로 리턴한다.")
+            void it_return_same_product() {
+                assertThat(priceUpdateBuffer.apply(product)).isSameAs(product);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("flush 메소드는")
+    class Describe_flush {
+
+        @Nested
+        @DisplayName("버퍼에 가격이 있다면")
+        class Context_with_pending_price {
+
+            @BeforeEach
+            void prepare() {
+                priceUpdateBuffer.offer(1L, 2000);
+                priceUpdateBuffer.offer(2L, 3000);
+
+                given(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class))).will(invocation -> {
+                    Collection<Map.Entry<Long, Integer>> entries = invocation.getArgument(1);
+                    ParameterizedPreparedStatementSetter<Map.Entry<Long, Integer>> setter = invocation.getArgument(3);
+                    for (Map.Entry<Long, Integer> entry : entries) {
+                        setter.setValues(mock(PreparedStatement.class), entry);
+                    }
+                    return new int[][]{};
+                });
+            }
+
+            @Test
+            @DisplayName("한 번의 batch UPDATE로 반영하고 버퍼를 비운 뒤 반영한 id를 알린다.")
+            void it_flush_prices() {
+                assertThat(priceUpdateBuffer.flush()).isEqualTo(2);
+
+                verify(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), eq(2),
+                        any(ParameterizedPreparedStatementSetter.class));
+                assertThat(priceUpdateBuffer.pendingCount()).isZero();
+                verify(eventPublisher).publishEvent(argThat((PricesFlushedEvent event) ->
+                        event.getProductIds().containsAll(List.of(1L, 2L))));
+            }
+        }
+
+        @Nested
+        @DisplayName("버퍼가 비어 있다면")
+        class Context_without_pending_price {
+
+            @Test
+            @DisplayName("아무것도 반영하지 않는다.")
+            void it_does_nothing() {
+                priceUpdateBuffer.shutdown();
+
+                verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class));
+            }
+        }
+
+        @Nested
+        @DisplayName("반영에 실패한다면")
+        class Context_with_failure {
+
+            @BeforeEach
+            void prepare() {
+                priceUpdateBuffer.offer(1L, 2000);
+
+                given(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class)))
+                        .willThrow(new IllegalStateException("database is down"));
+            }
+
+            @Test
+            @DisplayName("가격을 버퍼로 되돌려 다음 flush에서 다시 반영한다.")
+            void it_keep_prices() {
+                assertThatThrownBy(priceUpdateBuffer::flush).isInstanceOf(IllegalStateException.class);
+
+                assertThat(priceUpdateBuffer.pendingCount()).isEqualTo(1);
+                assertThat(priceUpdateBuffer.pendingPrice(1L)).isEqualTo(2000);
+                verify(eventPublisher, never()).publishEvent(any());
+            }
+        }
+
+        @Nested
+        @DisplayName("반영하는 동안 같은 id가 수정된다면")
+        class Context_with_concurrent_update {
+
+            private final CountDownLatch batchStarted = new CountDownLatch(1);
+
+            private final CountDownLatch releaseBatch = new CountDownLatch(1);
+
+            private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+            private ExecutorService executor;
+
+            @BeforeEach
+            void prepare() {
+                executor = Executors.newFixedThreadPool(3);
+                priceUpdateBuffer.offer(1L, 2000);
+
+                given(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class))).will(invocation -> {
+                    events.add("batch");
+                    batchStarted.countDown();
+                    releaseBatch.await(5, TimeUnit.SECONDS);
+                    return new int[][]{};
+                });
+            }
+
+            @AfterEach
+            void tearDown() {
+                executor.shutdownNow();
+            }
+
+            @Test
+            @DisplayName("반영이 끝난 뒤에 수정하고, 그 사이에 들어온 가격은 다음 flush로 남긴다.")
+            void it_waits_for_flush() throws Exception {
+                Future<Integer> flush = executor.submit(priceUpdateBuffer::flush);
+                assertThat(batchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+                Future<?> update = executor.submit(() -> priceUpdateBuffer.locked(1L, () -> {
+                    events.add("update");
+                    priceUpdateBuffer.discard(1L);
+                    return null;
+                }));
+                Future<?> offer = executor.submit(() -> priceUpdateBuffer.offer(1L, 3000));
+
+                Thread.sleep(100);
+                assertThat(update.isDone()).isFalse();
+                assertThat(offer.isDone()).isFalse();
+
+                releaseBatch.countDown();
+                assertThat(flush.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+                update.get(5, TimeUnit.SECONDS);
+                offer.get(5, TimeUnit.SECONDS);
+
+                assertThat(events).startsWith("batch", "update");
+            }
+
+            @Test
+            @DisplayName("반영 중에도 그 가격을 읽을 수 있고, 다른 id의 수정은 기다리지 않는다.")
+            void it_does_not_block_other_ids() throws Exception {
+                Future<Integer> flush = executor.submit(priceUpdateBuffer::flush);
+                assertThat(batchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+                assertThat(priceUpdateBuffer.pendingPrice(1L)).isEqualTo(2000);
+                Future<?> otherIds = executor.submit(() -> {
+                    for (long id = 2; id <= 65; id++) {
+                        priceUpdateBuffer.locked(id, () -> priceUpdateBuffer.pendingPrice(1L));
+                    }
+                });
+                otherIds.get(5, TimeUnit.SECONDS);
+                assertThat(flush.isDone()).isFalse();
+
+                releaseBatch.countDown();
+                assertThat(flush.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+                assertThat(priceUpdateBuffer.pendingPrice(1L)).isNull();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.exception.ProductNotFoundException;
+import com.codesoom.assignment.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@DisplayName("ProductArchiver로 보관한 뒤 ProductService는")
+class ProductArchiverIntegrationTest {
+
+    @Autowired
+    ProductArchiver productArchiver;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Long givenId;
+
+    @BeforeEach
+    void setUp() {
+        givenId = productRepository.save(Product.builder()
+                .name("오래된 제품")
+                .maker("테스트 메이커")
+                .price(1000)
+                .build()).getId();
+        jdbcTemplate.update("UPDATE product SET updated_at = ? WHERE id = ?",
+                LocalDateTime.now().minusYears(1), givenId);
+    }
+
+    @Nested
+    @DisplayName("오래 변경되지 않은 Product라면")
+    class Context_with_cold_product {
+
+        @BeforeEach
+        void prepare() {
+            productArchiver.compact();
+        }
+
+        @Test
+        @DisplayName("목록과 상세 조회에서 그대로 찾는다.")
+        void it_keep_product_readable() {
+            assertThat(productService.getProduct(givenId).getName()).isEqualTo("오래된 제품");
+            assertThat(productService.getProducts()).extracting(Product::getId).contains(givenId);
+        }
+
+        @Test
+        @DisplayName("수정하고 삭제할 수 있다.")
+        void it_keep_product_writable() {
+            assertThat(productService.updateProduct(givenId, Product.builder().name("새 이름").build()).getName())
+                    .isEqualTo("새 이름");
+
+            productService.deleteProduct(givenId);
+
+            assertThatThrownBy(() -> productService.getProduct(givenId))
+                    .isInstanceOf(ProductNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("삭제된 Product라면")
+    class Context_with_deleted_product {
+
+        @BeforeEach
+        void prepare() {
+            productService.deleteProduct(givenId);
+            productArchiver.compact();
+        }
+
+        @Test
+        @DisplayName("보관 조회로만 찾는다.")
+        void it_find_only_in_archive() {
+            assertThat(productService.getArchivedProduct(givenId).getName()).isEqualTo("오래된 제품");
+            assertThat(productService.getProducts()).extracting(Product::getId).doesNotContain(givenId);
+            assertThatThrownBy(() -> productService.getProduct(givenId))
+                    .isInstanceOf(ProductNotFoundException.class);
+            assertThatThrownBy(() -> productService.deleteProduct(givenId))
+                    .isInstanceOf(ProductNotFoundException.class);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.repository.ProductRepository;
+import com.codesoom.assignment.repository.ProductRepository.ArchivableRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("ProductArchiver 클래스")
+class ProductArchiverTest {
+
+    private ProductRepository productRepository;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ProductArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        archiver = new ProductArchiver(productRepository, jdbcTemplate, 100);
+    }
+
+    @Nested
+    @DisplayName("compact 메소드는")
+    class Describe_compact {
+
+        @Nested
+        @DisplayName("삭제 표시된 Product가 있다면")
+        class Context_with_archivable_products {
+
+            @BeforeEach
+            void prepare() {
+                given(productRepository.findArchivableIds(100)).willReturn(List.of(1L, 2L, 3L));
+                given(productRepository.purgeArchivable(List.of(1L, 2L, 3L)))
+                        .willReturn(List.of(row(1L), row(2L)));
+            }
+
+            @Test
+            @DisplayName("실제로 지운 Product만 product_archive로 옮기고 옮긴 개수를 리턴한다.")
+            void it_move_products() {
+                assertThat(archiver.compact()).isEqualTo(2);
+
+                verify(jdbcTemplate).batchUpdate(anyString(),
+                        argThat((Collection<ArchivableRow> rows) -> rows.size() == 2), eq(2),
+                        any(ParameterizedPreparedStatementSetter.class));
+            }
+        }
+
+        @Nested
+        @DisplayName("보관할 Product가 없다면")
+        class Context_without_archivable_products {
+
+            @Test
+            @DisplayName("아무것도 옮기지 않는다.")
+            void it_does_nothing() {
+                assertThat(archiver.compact()).isZero();
+
+                verify(productRepository, never()).purgeArchivable(any());
+                verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class));
+            }
+        }
+
+        @Nested
+        @DisplayName("찾은 뒤 다른 노드가 먼저 옮겼다면")
+        class Context_with_products_archived_after_find {
+
+            @BeforeEach
+            void prepare() {
+                given(productRepository.findArchivableIds(100)).willReturn(List.of(1L));
+                given(productRepository.purgeArchivable(List.of(1L))).willReturn(List.of());
+            }
+
+            @Test
+            @DisplayName("아무것도 보관하지 않는다.")
+            void it_does_not_archive() {
+                assertThat(archiver.compact()).isZero();
+
+                verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class));
+            }
+        }
+    }
+
+    private ArchivableRow row(Long id) {
+        ArchivableRow row = mock(ArchivableRow.class);
+        given(row.getId()).willReturn(id);
+        given(row.getName()).willReturn("삭제된 제품");
+        given(row.getPrice()).willReturn(1000);
+        given(row.getDeletedAt()).willReturn(LocalDateTime.now());
+        return row;
+    }
+}
@@ -0,0 +1,368 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.event.ProductChangedEvent;
+import com.codesoom.assignment.tenant.TenantContext;
+import com.codesoom.assignment.tenant.TenantQuota;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("ProductCatalogSnapshot 클래스")
+class ProductCatalogSnapshotTest {
+
+    private ProductService productService;
+
+    private ProductCatalogSnapshot catalogSnapshot;
+
+    private ProductCatalogSnapshot manualSnapshot;
+
+    private List<Product> products = new ArrayList<>();
+
+    private List<Runnable> rebuildTasks = new ArrayList<>();
+
+    private List<Long> rebuildDelays = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        TenantQuota tenantQuota = new TenantQuota(List.of(TenantContext.DEFAULT_TENANT, "other"), 1, 0);
+        catalogSnapshot = new ProductCatalogSnapshot(productService, new ObjectMapper(), tenantQuota, 60000, 0);
+
+        ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+        willAnswer(invocation -> {
+            rebuildTasks.add(invocation.getArgument(0));
+            rebuildDelays.add(invocation.getArgument(1));
+            return null;
+        }).given(executor).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+        manualSnapshot = new ProductCatalogSnapshot(productService, new ObjectMapper(), tenantQuota, 60000, 60000,
+                executor);
+
+        Product product = Product.builder()
+                .name("테스트 제품")
+                .maker("테스트 메이커")
+                .price(1000)
+                .image("http://test.com/test.jpg")
+                .build();
+        product.setId(1L);
+        products.add(product);
+
+        given(productService.getProducts()).willReturn(products);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogSnapshot.shutdown();
+    }
+
+    @Nested
+    @DisplayName("current 메소드는")
+    class Describe_current {
+
+        @Nested
+        @DisplayName("스냅샷이 아직 없다면")
+        class Context_without_snapshot {
+
+            @Test
+            @DisplayName("직접 만들어 리턴하고, 다음 요청에는 같은 스냅샷을 리턴한다.")
+            void it_build_synchronously() {
+                ProductCatalogSnapshot.Snapshot snapshot = manualSnapshot.current();
+
+                assertThat(toString(snapshot.getJson())).contains("테스트 제품");
+                assertThat(manualSnapshot.current()).isSameAs(snapshot);
+                assertThat(rebuildTasks).isEmpty();
+                verify(productService, times(1)).getProducts();
+            }
+
+            @Test
+            @DisplayName("백그라운드에서 이미 만들었다면 다시 읽지 않는다.")
+            void it_reuse_background_build() {
+                manualSnapshot.buildAll();
+                rebuildTasks.forEach(Runnable::run);
+
+                assertThat(manualSnapshot.current()).isNotNull();
+                verify(productService, times(2)).getProducts();
+            }
+        }
+
+        @Nested
+        @DisplayName("스냅샷이 있다면")
+        class Context_with_snapshot {
+
+            @Test
+            @DisplayName("같은 스냅샷을 리턴한다.")
+            void it_return_cached_snapshot() throws IOException {
+                ProductCatalogSnapshot.Snapshot snapshot = catalogSnapshot.refresh();
+
+                assertThat(catalogSnapshot.current()).isSameAs(snapshot);
+                assertThat(snapshot.getJson().isDirect()).isTrue();
+                assertThat(toString(snapshot.getJson())).contains("테스트 제품");
+                assertThat(gunzip(snapshot.getGzip())).isEqualTo(toString(snapshot.getJson()));
+                assertThat(snapshot.getBuiltAt()).isPositive();
+                verify(productService, times(1)).getProducts();
+            }
+        }
+
+        @Nested
+        @DisplayName("다시 만들기에 실패해 max-staleness보다 오래되었다면")
+        class Context_with_too_stale_snapshot {
+
+            @Test
+            @DisplayName("전체를 다시 만들도록 예약한다.")
+            void it_schedule_full_rebuild() throws InterruptedException {
+                ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+                List<Runnable> tasks = new ArrayList<>();
+                willAnswer(invocation -> {
+                    tasks.add(invocation.getArgument(0));
+                    return null;
+                }).given(executor).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+                ProductCatalogSnapshot snapshot = new ProductCatalogSnapshot(productService, new ObjectMapper(),
+                        new TenantQuota(List.of(TenantContext.DEFAULT_TENANT), 1, 0), 1, 0, executor);
+                snapshot.refresh();
+                given(productService.getProductsByIds(any())).willThrow(new IllegalStateException("failed"));
+
+                snapshot.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.Type.UPDATED));
+                tasks.remove(0).run();
+                Thread.sleep(5);
+
+                assertThat(snapshot.current()).isNotNull();
+                assertThat(tasks).hasSize(1);
+
+                tasks.remove(0).run();
+
+                verify(productService, times(2)).getProducts();
+                assertThat(snapshot.stalenessMillis()).isZero();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("buildAll 메소드는")
+    class Describe_buildAll {
+
+        @Test
+        @DisplayName("등록된 tenant마다 스냅샷을 만들도록 예약한다.")
+        void it_schedule_build_for_tenants() {
+            List<String> tenants = new ArrayList<>();
+            given(productService.getProducts()).will(invocation -> {
+                tenants.add(TenantContext.current());
+                return products;
+            });
+
+            manualSnapshot.buildAll();
+            rebuildTasks.forEach(Runnable::run);
+
+            assertThat(tenants).containsExactlyInAnyOrder(TenantContext.DEFAULT_TENANT, "other");
+            assertThat(manualSnapshot.current()).isNotNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("onProductChanged 메소드는")
+    class Describe_onProductChanged {
+
+        @Test
+        @DisplayName("백그라운드에서 바뀐 Product만 다시 읽어 스냅샷을 만든다.")
+        void it_rebuild_changed_products() {
+            ProductCatalogSnapshot.Snapshot snapshot = catalogSnapshot.refresh();
+            Product changed = products.get(0).withPrice(2000);
+            given(productService.getProductsByIds(List.of(1L))).willReturn(List.of(changed));
+
+            catalogSnapshot.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.Type.UPDATED));
+
+            verify(productService, timeout(1000)).getProductsByIds(List.of(1L));
+            verify(productService, times(1)).getProducts();
+            assertThat(snapshot.getVersion()).isZero();
+        }
+
+        @Test
+        @DisplayName("다시 만들기 전까지 여러 변경을 한 번의 작업으로 모은다.")
+        void it_coalesce_changes() throws InterruptedException {
+            manualSnapshot.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.Type.CREATED));
+            manualSnapshot.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.Type.DELETED));
+            Thread.sleep(5);
+
+            assertThat(rebuildTasks).hasSize(1);
+            assertThat(manualSnapshot.stalenessMillis()).isPositive();
+
+            rebuildTasks.get(0).run();
+
+            assertThat(manualSnapshot.current().getVersion()).isEqualTo(2);
+            assertThat(manualSnapshot.stalenessMillis()).isZero();
+        }
+
+        @Test
+        @DisplayName("마지막 스냅샷을 만든 뒤 min-rebuild-interval이 지날 때까지 미뤄 예약한다.")
+        void it_throttle_rebuilds() {
+            manualSnapshot.refresh();
+            given(productService.getProductsByIds(any())).willReturn(products);
+
+            manualSnapshot.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.Type.UPDATED));
+
+            assertThat(rebuildDelays).hasSize(1);
+            assertThat(rebuildDelays.get(0)).isPositive().isLessThanOrEqualTo(60000);
+        }
+
+        @Test
+        @DisplayName("다시 만드는 동안 들어온 변경은 끝난 뒤 다시 예약한다.")
+        void it_schedule_changes_during_rebuild() {
+            manualSnapshot.refresh();
+            given(productService.getProductsByIds(List.of(1L))).will(invocation -> {
+                manualSnapshot.onProductChanged(new ProductChangedEvent(2L, ProductChangedEvent.Type.CREATED));
+                return products;
+            });
+
+            manualSnapshot.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.Type.UPDATED));
+            rebuildTasks.remove(0).run();
+            assertThat(rebuildTasks).hasSize(1);
+
+            rebuildTasks.remove(0).run();
+
+            verify(productService).getProductsByIds(List.of(2L));
+            assertThat(manualSnapshot.stalenessMillis()).isZero();
+        }
+
+        @Test
+        @DisplayName("찾지 못한 Product는 스냅샷에서 뺀다.")
+        void it_remove_missing_products() {
+            manualSnapshot.refresh();
+
+            manualSnapshot.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.Type.DELETED));
+            rebuildTasks.forEach(Runnable::run);
+
+            assertThat(toString(manualSnapshot.current().getJson())).isEqualTo("[]");
+        }
+    }
+
+    @Nested
+    @DisplayName("tenant별로")
+    class Describe_tenants {
+
+        @Test
+        @DisplayName("따로 스냅샷을 만들고, 변경된 tenant의 스냅샷만 다시 만든다.")
+        void it_rebuild_changed_tenant_only() {
+            List<String> tenants = new ArrayList<>();
+            given(productService.getProducts()).will(invocation -> {
+                tenants.add(TenantContext.current());
+                return products;
+            });
+            given(productService.getProductsByIds(any())).will(invocation -> {
+                tenants.add(TenantContext.current());
+                return products;
+            });
+            ProductCatalogSnapshot.Snapshot defaultSnapshot = manualSnapshot.refresh();
+            ProductCatalogSnapshot.Snapshot otherSnapshot = TenantContext.call("other", manualSnapshot::refresh);
+
+            Product changed = products.get(0).withPrice(2000);
+            changed.setTenantId("other");
+            manualSnapshot.onProductChanged(
+                    new ProductChangedEvent(1L, ProductChangedEvent.Type.UPDATED, products.get(0), changed));
+            rebuildTasks.forEach(Runnable::run);
+
+            assertThat(otherSnapshot).isNotSameAs(defaultSnapshot);
+            assertThat(rebuildTasks).hasSize(1);
+            assertThat(tenants).containsExactly(TenantContext.DEFAULT_TENANT, "other", "other");
+            assertThat(manualSnapshot.current()).isSameAs(defaultSnapshot);
+        }
+
+        @Test
+        @DisplayName("등록되지 않은 tenant의 변경은 무시한다.")
+        void it_ignore_unknown_tenant() {
+            Product changed = products.get(0).withPrice(2000);
+            changed.setTenantId("removed");
+            manualSnapshot.onProductChanged(
+                    new ProductChangedEvent(1L, ProductChangedEvent.Type.UPDATED, products.get(0), changed));
+
+            assertThat(rebuildTasks).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("evict 메소드는")
+    class Describe_evict {
+
+        @Test
+        @DisplayName("다른 노드의 변경을 받으면 주어진 id를 다시 읽도록 예약한다.")
+        void it_schedule_rebuild() {
+            manualSnapshot.refresh();
+
+            manualSnapshot.evict(List.of(1L, 2L));
+            rebuildTasks.forEach(Runnable::run);
+
+            assertThat(rebuildTasks).hasSize(1);
+            verify(productService).getProductsByIds(List.of(1L, 2L));
+        }
+    }
+
+    @Nested
+    @DisplayName("refresh 메소드는")
+    class Describe_refresh {
+
+        @Test
+        @DisplayName("만드는 동안 변경이 생기면 오래된 상태를 유지한다.")
+        void it_keep_staleness() {
+            given(productService.getProducts()).will(invocation -> {
+                manualSnapshot.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.Type.UPDATED));
+                return products;
+            });
+
+            assertThat(manualSnapshot.refresh().getVersion()).isZero();
+            assertThat(manualSnapshot.stalenessMillis()).isGreaterThanOrEqualTo(0);
+            assertThat(rebuildTasks).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("직렬화에 실패하면 UncheckedIOException을 던진다.")
+        void it_throw_uncheckedIOException() throws JsonProcessingException {
+            ObjectMapper objectMapper = mock(ObjectMapper.class);
+            given(objectMapper.writeValueAsBytes(any())).willThrow(JsonProcessingException.class);
+
+            ProductCatalogSnapshot failingSnapshot = new ProductCatalogSnapshot(productService, objectMapper,
+                    new TenantQuota(List.of(TenantContext.DEFAULT_TENANT), 1, 0), 60000, 0,
+                    mock(ScheduledExecutorService.class));
+
+            assertThatThrownBy(failingSnapshot::refresh).isInstanceOf(UncheckedIOException.class);
+        }
+    }
+
+    private String toString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String gunzip(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.dto.ExportJob;
+import com.codesoom.assignment.dto.ExportResult;
+import com.codesoom.assignment.exception.ExportJobNotFoundException;
+import com.codesoom.assignment.repository.ProductRepository;
+import com.codesoom.assignment.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("ProductExporter 클래스")
+class ProductExporterTest {
+
+    @TempDir
+    Path directory;
+
+    private ProductRepository productRepository;
+
+    private PriceUpdateBuffer priceUpdateBuffer;
+
+    private ProductExporter productExporter;
+
+    private final List<Runnable> jobTasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        priceUpdateBuffer = mock(PriceUpdateBuffer.class);
+        ExecutorService jobExecutor = mock(ExecutorService.class);
+        willAnswer(invocation -> jobTasks.add(invocation.getArgument(0))).given(jobExecutor).execute(any(Runnable.class));
+        productExporter = new ProductExporter(productRepository, priceUpdateBuffer, new ObjectMapper(),
+                directory.toString(), 2, 2, jobExecutor);
+    }
+
+    private ProductRepository.IdRange idRange(Long minId, Long maxId) {
+        ProductRepository.IdRange range = mock(ProductRepository.IdRange.class);
+        given(range.getMinId()).willReturn(minId);
+        given(range.getMaxId()).willReturn(maxId);
+        return range;
+    }
+
+    private Product product(Long id) {
+        Product product = Product.builder()
+                .name("테스트 제품 " + id)
+                .maker("테스트 메이커")
+                .price(1000)
+                .build();
+        product.setId(id);
+        return product;
+    }
+
+    @Nested
+    @DisplayName("start 메소드는")
+    class Describe_start {
+
+        @BeforeEach
+        void prepare() {
+            given(productRepository.findIdRangeByTenantId(TenantContext.DEFAULT_TENANT))
+                    .willReturn(idRange(1L, 1L));
+            given(productRepository.findByIdBetweenAndTenantId(1L, 1L, TenantContext.DEFAULT_TENANT))
+                    .willReturn(List.of(product(1L)));
+        }
+
+        @Test
+        @DisplayName("작업을 예약하고 바로 리턴하며, 끝나면 작업 결과를 남긴다.")
+        void it_run_export_in_background() {
+            ExportJob job = productExporter.start();
+
+            assertThat(job.getStatus()).isEqualTo(ExportJob.Status.RUNNING);
+            verify(productRepository, never()).findIdRangeByTenantId(any());
+
+            jobTasks.forEach(Runnable::run);
+
+            assertThat(productExporter.job(job.getId()).getStatus()).isEqualTo(ExportJob.Status.COMPLETED);
+            assertThat(job.getResult().getRows()).isEqualTo(1);
+            assertThat(directory.resolve("products-default-" + job.getId() + ".ndjson.gz")).exists();
+            assertThat(directory.toFile().list()).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("파티션을 읽다가 실패하면 쓰던 파일을 지운다.")
+        void it_delete_partial_file_on_failure() {
+            given(productRepository.findByIdBetweenAndTenantId(1L, 1L, TenantContext.DEFAULT_TENANT))
+                    .willThrow(new IllegalStateException("no connection"));
+
+            ExportJob job = productExporter.start();
+            jobTasks.forEach(Runnable::run);
+
+            assertThat(job.getStatus()).isEqualTo(ExportJob.Status.FAILED);
+            assertThat(directory.toFile().list()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("최근 작업 목록에서 밀려난 작업의 파일을 지운다.")
+        void it_delete_file_of_evicted_job() {
+            ExportJob first = productExporter.start();
+            jobTasks.forEach(Runnable::run);
+            jobTasks.clear();
+            Path firstFile = directory.resolve("products-default-" + first.getId() + ".ndjson.gz");
+            assertThat(firstFile).exists();
+
+            for (int i = 0; i < 100; i++) {
+                productExporter.start();
+            }
+
+            assertThat(firstFile).doesNotExist();
+            assertThatThrownBy(() -> productExporter.job(first.getId()))
+                    .isInstanceOf(ExportJobNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("내보내기에 실패하면 실패 상태와 이유를 남긴다.")
+        void it_record_failure() {
+            given(productRepository.findIdRangeByTenantId(TenantContext.DEFAULT_TENANT))
+                    .willThrow(new IllegalStateException("no connection"));
+
+            ExportJob job = productExporter.start();
+            jobTasks.forEach(Runnable::run);
+
+            assertThat(job.getStatus()).isEqualTo(ExportJob.Status.FAILED);
+            assertThat(job.getError()).isEqualTo("no connection");
+        }
+    }
+
+    @Nested
+    @DisplayName("job 메소드는")
+    class Describe_job {
+
+        @Test
+        @DisplayName("다른 tenant의 작업이나 없는 작업이면 ExportJobNotFoundException을 던진다.")
+        void it_throw_for_other_tenant() {
+            ExportJob job = productExporter.start();
+
+            assertThatThrownBy(() -> TenantContext.call("other", () -> productExporter.job(job.getId())))
+                    .isInstanceOf(ExportJobNotFoundException.class);
+            assertThatThrownBy(() -> productExporter.job("missing"))
+                    .isInstanceOf(ExportJobNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("export 메소드는")
+    class Describe_export {
+
+        private Path target;
+
+        @BeforeEach
+        void prepareTarget() {
+            target = directory.resolve("products.ndjson.gz");
+        }
+
+        @Nested
+        @DisplayName("등록된 Product가 있다면")
+        class Context_with_products {
+
+            @BeforeEach
+            void prepare() {
+                given(productRepository.findIdRangeByTenantId(TenantContext.DEFAULT_TENANT))
+                        .willReturn(idRange(1L, 7L));
+                given(productRepository.findByIdBetweenAndTenantId(1L, 2L, TenantContext.DEFAULT_TENANT))
+                        .will(invocation -> {
+                            // 뒤 파티션이 먼저 끝나도 파일에는 id 순서로 써야 합니다.
+                            Thread.sleep(50);
+                            return List.of(product(1L), product(2L));
+                        });
+                given(productRepository.findByIdBetweenAndTenantId(3L, 4L, TenantContext.DEFAULT_TENANT))
+                        .willReturn(List.of());
+                given(productRepository.findByIdBetweenAndTenantId(5L, 6L, TenantContext.DEFAULT_TENANT))
+                        .willReturn(List.of(product(5L)));
+                given(productRepository.findByIdBetweenAndTenantId(7L, 7L, TenantContext.DEFAULT_TENANT))
+                        .willReturn(List.of(product(7L)));
+            }
+
+            @Test
+            @DisplayName("파티션별로 압축한 NDJSON 파일을 id 순서로 만들고 결과를 리턴한다.")
+            void it_export_products_in_id_order() throws IOException {
+                ExportResult result = productExporter.export(TenantContext.DEFAULT_TENANT, target);
+
+                verify(priceUpdateBuffer).flush();
+                assertThat(result.getRows()).isEqualTo(4);
+                assertThat(result.getPartitions()).isEqualTo(4);
+                assertThat(result.getRowsPerSecond()).isPositive();
+
+                byte[] bytes = Files.readAllBytes(target);
+                assertThat(result.getBytes()).isEqualTo(bytes.length);
+                assertThat(gunzip(bytes).split("\n"))
+                        .extracting(line -> line.replaceAll(".*\"name\":\"테스트 제품 (\\d+)\".*", "$1"))
+                        .containsExactly("1", "2", "5", "7");
+            }
+        }
+
+        @Nested
+        @DisplayName("다른 tenant의 작업이라면")
+        class Context_with_other_tenant {
+
+            @BeforeEach
+            void prepare() {
+                given(productRepository.findIdRangeByTenantId("other")).willReturn(idRange(7L, 7L));
+                given(productRepository.findByIdBetweenAndTenantId(7L, 7L, "other"))
+                        .willReturn(List.of(product(7L)));
+            }
+
+            @Test
+            @DisplayName("그 tenant의 Product만 내보낸다.")
+            void it_export_tenant_products() {
+                ExportResult result = productExporter.export("other", target);
+
+                assertThat(result.getRows()).isEqualTo(1);
+                verify(productRepository, never()).findIdRangeByTenantId(TenantContext.DEFAULT_TENANT);
+            }
+        }
+
+        @Nested
+        @DisplayName("등록된 Product가 없다면")
+        class Context_without_products {
+
+            @BeforeEach
+            void prepare() {
+                given(productRepository.findIdRangeByTenantId(TenantContext.DEFAULT_TENANT))
+                        .willReturn(idRange(null, null));
+            }
+
+            @Test
+            @DisplayName("빈 파일을 만든다.")
+            void it_export_empty_file() {
+                ExportResult result = productExporter.export(TenantContext.DEFAULT_TENANT, target);
+
+                assertThat(result.getRows()).isZero();
+                assertThat(result.getBytes()).isZero();
+            }
+        }
+
+        @Nested
+        @DisplayName("내보낼 디렉토리가 없다면")
+        class Context_with_invalid_directory {
+
+            @BeforeEach
+            void prepare() {
+                given(productRepository.findIdRangeByTenantId(TenantContext.DEFAULT_TENANT))
+                        .willReturn(idRange(null, null));
+            }
+
+            @Test
+            @DisplayName("UncheckedIOException을 던진다.")
+            void it_throw_uncheckedIOException() {
+                assertThatThrownBy(() -> productExporter.export(TenantContext.DEFAULT_TENANT,
+                        directory.resolve("missing").resolve("products.ndjson.gz")))
+                        .isInstanceOf(UncheckedIOException.class);
+            }
+        }
+    }
+
+    private String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
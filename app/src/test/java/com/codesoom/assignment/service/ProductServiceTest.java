@@ -1,13 +1,20 @@
 package com.codesoom.assignment.service;
 
+import com.codesoom.assignment.domain.ArchivedProduct;
 import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.event.ProductChangedEvent;
 import com.codesoom.assignment.exception.ProductNotFoundException;
+import com.codesoom.assignment.repository.ArchivedProductRepository;
 import com.codesoom.assignment.repository.ProductRepository;
+import com.codesoom.assignment.repository.ProductRepository.ProductRow;
+import com.codesoom.assignment.tenant.TenantContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,8 +24,11 @@ import java.util.stream.IntStream;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @DisplayName("ProductsService 클래스")
@@ -28,12 +38,23 @@ public class ProductServiceTest {
 
     private ProductRepository productRepository;
 
+    private ArchivedProductRepository archivedProductRepository;
+
+    private PriceUpdateBuffer priceUpdateBuffer;
+
+    private ApplicationEventPublisher eventPublisher;
+
     List<Product> products = new ArrayList<>();
 
     @BeforeEach
     void setUp() {
         productRepository = mock(ProductRepository.class);
-        productService = new ProductService(productRepository, new ModelMapper());
+        archivedProductRepository = mock(ArchivedProductRepository.class);
+        priceUpdateBuffer = new PriceUpdateBuffer(mock(JdbcTemplate.class), mock(ApplicationEventPublisher.class),
+                true);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        productService = new ProductService(productRepository, archivedProductRepository, priceUpdateBuffer,
+                eventPublisher);
 
         Product product = Product.builder()
                 .name("테스트 제품")
@@ -61,7 +82,7 @@ public class ProductServiceTest {
             @BeforeEach
             void prepare() {
                 givenProductsCount = products.size();
-                given(productRepository.findAll()).willReturn(products);
+                given(productRepository.findAllByTenantId(TenantContext.DEFAULT_TENANT)).willReturn(products);
             }
 
             @Test
@@ -79,7 +100,7 @@ public class ProductServiceTest {
             void prepare() {
                 List<Product> products = new ArrayList<>();
 
-                given(productRepository.findAll()).willReturn(products);
+                given(productRepository.findAllByTenantId(TenantContext.DEFAULT_TENANT)).willReturn(products);
             }
 
             @Test
@@ -90,6 +111,36 @@ public class ProductServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getProductsByIds 메소드는")
+    class Describe_getProductsByIds {
+
+        @Test
+        @DisplayName("현재 tenant에서 주어진 id의 Product를 한 번에 조회한다.")
+        void it_return_products_of_ids() {
+            List<Long> ids = List.of(1L, 2L);
+            given(productRepository.findAllByIdInAndTenantId(ids, TenantContext.DEFAULT_TENANT))
+                    .willReturn(List.of(products.get(0)));
+
+            assertThat(productService.getProductsByIds(ids)).hasSize(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("getProductsAfter 메소드는")
+    class Describe_getProductsAfter {
+
+        @Test
+        @DisplayName("현재 tenant에서 주어진 id 다음의 Product를 size개까지 조회한다.")
+        void it_return_next_page() {
+            given(productRepository.findByTenantIdAndIdGreaterThanOrderByIdAsc(
+                    TenantContext.DEFAULT_TENANT, 1L, PageRequest.of(0, 2)))
+                    .willReturn(List.of(products.get(0)));
+
+            assertThat(productService.getProductsAfter(1L, 2)).hasSize(1);
+        }
+    }
+
     @Nested
     @DisplayName("getProduct 메소드는")
     class Describe_getProduct {
@@ -102,7 +153,8 @@ public class ProductServiceTest {
 
             @BeforeEach
             void prepare() {
-                given(productRepository.findById(givenId)).willReturn(Optional.of(products.get(0)));
+                given(productRepository.findByIdAndTenantId(givenId, TenantContext.DEFAULT_TENANT))
+                        .willReturn(Optional.of(products.get(0)));
             }
 
             @Test
@@ -122,7 +174,7 @@ public class ProductServiceTest {
 
             @BeforeEach
             void prepare() {
-                given(productRepository.findById(givenInvalidId)).willReturn(Optional.empty());
+                given(productRepository.findByIdAndTenantId(givenInvalidId, TenantContext.DEFAULT_TENANT)).willReturn(Optional.empty());
             }
 
             @Test
@@ -131,6 +183,69 @@ public class ProductServiceTest {
                 assertThatThrownBy(() -> productService.getProduct(givenInvalidId)).isInstanceOf(ProductNotFoundException.class);
             }
         }
+
+        @Nested
+        @DisplayName("다른 tenant의 요청이라면")
+        class Context_with_other_tenant {
+
+            Long givenId = 1L;
+
+            @BeforeEach
+            void prepare() {
+                given(productRepository.findByIdAndTenantId(givenId, TenantContext.DEFAULT_TENANT))
+                        .willReturn(Optional.of(products.get(0)));
+                given(productRepository.findByIdAndTenantId(givenId, "other")).willReturn(Optional.empty());
+            }
+
+            @Test
+            @DisplayName("해당 tenant의 Product만 찾고, 없으면 예외를 던진다.")
+            void it_return_productNotFoundException() {
+                assertThatThrownBy(() -> TenantContext.call("other", () -> productService.getProduct(givenId)))
+                        .isInstanceOf(ProductNotFoundException.class);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("getArchivedProduct 메소드는")
+    class Describe_getArchivedProduct {
+
+        @Nested
+        @DisplayName("보관된 Product의 id 값이 주어진다면")
+        class Context_with_archived_id {
+
+            Long givenId = 1L;
+
+            @BeforeEach
+            void prepare() {
+                given(archivedProductRepository.findByIdAndTenantId(givenId, TenantContext.DEFAULT_TENANT)).willReturn(Optional.of(new ArchivedProduct()));
+            }
+
+            @Test
+            @DisplayName("보관된 product 정보를 리턴한다.")
+            void it_return_archived_product() {
+                assertThat(productService.getArchivedProduct(givenId)).isNotNull();
+            }
+        }
+
+        @Nested
+        @DisplayName("보관되지 않은 Product의 id 값이 주어진다면")
+        class Context_with_invalid_id {
+
+            Long givenInvalidId = 100L;
+
+            @BeforeEach
+            void prepare() {
+                given(archivedProductRepository.findByIdAndTenantId(givenInvalidId, TenantContext.DEFAULT_TENANT)).willReturn(Optional.empty());
+            }
+
+            @Test
+            @DisplayName("Product를 찾을 수 없다는 내용의 예외를 던진다.")
+            void it_return_productNotFoundException() {
+                assertThatThrownBy(() -> productService.getArchivedProduct(givenInvalidId))
+                        .isInstanceOf(ProductNotFoundException.class);
+            }
+        }
     }
 
     @Nested
@@ -160,6 +275,7 @@ public class ProductServiceTest {
                 Product createdProduct = productService.createProduct(givenProduct);
 
                 verify(productRepository).save(any(Product.class));
+                verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
 
                 assertThat(createdProduct.getId()).isEqualTo(givenId);
                 assertThat(createdProduct.getName()).isEqualTo(givenProduct.getName());
@@ -198,25 +314,55 @@ public class ProductServiceTest {
 
             @BeforeEach
             void prepare() {
-                givenProduct = products.get(0);
-                given(productRepository.findById(givenId)).willReturn(Optional.of(givenProduct));
-                given(productRepository.save(any(Product.class))).will(args -> {
-                    Product product = args.getArgument(0);
-                    product.setId(givenId);
-                    return product;
-                });
+                givenProduct = Product.builder()
+                        .name("업데이트 제품")
+                        .maker("업데이트 메이커")
+                        .price(2000)
+                        .image("http://test.com/update.jpg")
+                        .build();
+                given(productRepository.updatePartially(givenId, TenantContext.DEFAULT_TENANT, "업데이트 제품", "업데이트 메이커", 2000,
+                        "http://test.com/update.jpg")).willReturn(Optional.of(productRow(products.get(0))));
             }
 
             @Test
-            @DisplayName("해당 id의 Product를 수정하고, 리턴한다.")
+            @DisplayName("한 번의 UPDATE로 수정하고, 수정된 Product를 리턴한다.")
             void it_update_product_return_product() {
                 Product updatedProduct = productService.updateProduct(givenId, givenProduct);
 
-                verify(productRepository).findById(givenId);
+                verify(productRepository, never()).findByIdAndTenantId(eq(givenId), any());
 
+                assertThat(updatedProduct.getId()).isEqualTo(givenId);
                 assertThat(updatedProduct.getName()).isEqualTo(givenProduct.getName());
+                assertThat(updatedProduct.getPrice()).isEqualTo(givenProduct.getPrice());
+                verify(eventPublisher).publishEvent(argThat((ProductChangedEvent event) ->
+                        event.getBefore().getPrice() == 1000 && event.getAfter().getPrice() == 2000));
             }
         }
+
+        @Nested
+        @DisplayName("등록된 Product의 id와 일부 값만 주어진다면")
+        class Context_with_id_and_partial_product {
+
+            Long givenId = 1L;
+
+            @BeforeEach
+            void prepare() {
+                given(productRepository.updatePartially(givenId, TenantContext.DEFAULT_TENANT, "이름", null, null, null))
+                        .willReturn(Optional.of(productRow(products.get(0))));
+            }
+
+            @Test
+            @DisplayName("주어진 값만 바꾸고 나머지는 유지한 Product를 리턴한다.")
+            void it_update_supplied_fields_only() {
+                Product updatedProduct = productService.updateProduct(givenId, Product.builder().name("이름").build());
+
+                assertThat(updatedProduct.getName()).isEqualTo("이름");
+                assertThat(updatedProduct.getMaker()).isEqualTo("테스트 메이커");
+                assertThat(updatedProduct.getPrice()).isEqualTo(1000);
+                assertThat(updatedProduct.getImage()).isEqualTo("http://test.com/test.jpg");
+            }
+        }
+
         @Nested
         @DisplayName("등록되지 않은 Product의 id 와 Product가 있다면 ")
         class Context_with_invalid_id_and_product {
@@ -225,7 +371,9 @@ public class ProductServiceTest {
 
             @BeforeEach
             void prepare() {
-                given(productRepository.findById(givenInvalidId)).willReturn(Optional.empty());
+                given(productRepository.updatePartially(eq(givenInvalidId), eq(TenantContext.DEFAULT_TENANT),
+                        any(), any(), any(), any()))
+                        .willReturn(Optional.empty());
             }
 
             @Test
@@ -234,6 +382,84 @@ public class ProductServiceTest {
                 assertThatThrownBy(() -> productService.updateProduct(givenInvalidId, products.get(0))).isInstanceOf(ProductNotFoundException.class);
             }
         }
+
+        @Nested
+        @DisplayName("등록된 Product의 id와 가격만 주어진다면")
+        class Context_with_id_and_price_only {
+
+            Long givenId = 1L;
+            Integer givenPrice = 5000;
+
+            @BeforeEach
+            void prepare() {
+                given(productRepository.findByIdAndTenantId(givenId, TenantContext.DEFAULT_TENANT)).willReturn(Optional.of(products.get(0)));
+                given(productRepository.findRowById(givenId, TenantContext.DEFAULT_TENANT))
+                        .willReturn(Optional.of(productRow(products.get(0))));
+                given(productRepository.updatePartially(eq(givenId), eq(TenantContext.DEFAULT_TENANT),
+                        any(), any(), any(), any()))
+                        .willReturn(Optional.of(productRow(products.get(0))));
+            }
+
+            @Test
+            @DisplayName("엔티티를 읽지 않고 가격 변경을 버퍼에 모아두고, 변경된 가격의 Product를 리턴한다.")
+            void it_buffer_price_return_product() {
+                Product updatedProduct = productService.updateProduct(givenId, Product.builder().price(givenPrice).build());
+
+                verify(productRepository, never()).findByIdAndTenantId(any(), any());
+                assertThat(updatedProduct.getPrice()).isEqualTo(givenPrice);
+                assertThat(products.get(0).getPrice()).isEqualTo(1000);
+                assertThat(priceUpdateBuffer.pendingCount()).isEqualTo(1);
+                assertThat(productService.getProduct(givenId).getPrice()).isEqualTo(givenPrice);
+            }
+
+            @Test
+            @DisplayName("가격 외의 값이 함께 주어지면 버퍼를 거치지 않고 수정한다.")
+            void it_update_product_without_buffer() {
+                productService.updateProduct(givenId, Product.builder().price(givenPrice).build());
+
+                productService.updateProduct(givenId, Product.builder().name("이름").price(givenPrice).build());
+                productService.updateProduct(givenId, Product.builder().maker("메이커").price(givenPrice).build());
+                productService.updateProduct(givenId, Product.builder().image("이미지").price(givenPrice).build());
+                productService.updateProduct(givenId, Product.builder().name("이름").build());
+
+                assertThat(priceUpdateBuffer.pendingCount()).isZero();
+            }
+
+            @Test
+            @DisplayName("가격 없이 수정하면 버퍼에 남은 가격을 함께 반영한다.")
+            void it_update_with_pending_price() {
+                productService.updateProduct(givenId, Product.builder().price(givenPrice).build());
+
+                Product updatedProduct = productService.updateProduct(givenId, Product.builder().name("이름").build());
+
+                verify(productRepository).updatePartially(givenId, TenantContext.DEFAULT_TENANT, "이름", null, givenPrice, null);
+                assertThat(updatedProduct.getPrice()).isEqualTo(givenPrice);
+            }
+        }
+
+        @Nested
+        @DisplayName("가격 버퍼가 꺼져 있고 가격만 주어진다면")
+        class Context_with_disabled_buffer {
+
+            Long givenId = 1L;
+
+            @BeforeEach
+            void prepare() {
+                productService = new ProductService(productRepository, archivedProductRepository,
+                        new PriceUpdateBuffer(mock(JdbcTemplate.class), mock(ApplicationEventPublisher.class), false), eventPublisher);
+                given(productRepository.updatePartially(givenId, TenantContext.DEFAULT_TENANT, null, null, 3000, null))
+                        .willReturn(Optional.of(productRow(products.get(0))));
+            }
+
+            @Test
+            @DisplayName("해당 id의 Product를 바로 수정한다.")
+            void it_update_product_directly() {
+                Product updatedProduct = productService.updateProduct(givenId, Product.builder().price(3000).build());
+
+                assertThat(updatedProduct.getPrice()).isEqualTo(3000);
+                assertThat(updatedProduct.getName()).isEqualTo("테스트 제품");
+            }
+        }
     }
 
     @Nested
@@ -248,16 +474,18 @@ public class ProductServiceTest {
 
             @BeforeEach
             void prepare() {
-                given(productRepository.findById(givenProductId)).willReturn(Optional.of(products.get(0)));
+                given(productRepository.softDeleteById(givenProductId, TenantContext.DEFAULT_TENANT))
+                        .willReturn(Optional.of(productRow(products.get(0))));
             }
 
             @Test
-            @DisplayName("등록된 Product를 삭제하고, 빈값이 리턴한다.")
+            @DisplayName("등록된 Product를 한 번의 SQL로 삭제하고, 빈값이 리턴한다.")
             void it_delete_product_return() {
                 productService.deleteProduct(givenProductId);
 
-                verify(productRepository).findById(givenProductId);
-                verify(productRepository).delete(any(Product.class));
+                verify(productRepository).softDeleteById(givenProductId, TenantContext.DEFAULT_TENANT);
+                verify(productRepository, never()).findByIdAndTenantId(eq(givenProductId), any());
+                verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
             }
         }
 
@@ -270,10 +498,46 @@ public class ProductServiceTest {
             @Test
             @DisplayName("Product를 찾을 수 없다는 내용의 예외를 던진다.")
             void it_return_productNotFoundException() {
+                given(productRepository.softDeleteById(givenProductInvalidId, TenantContext.DEFAULT_TENANT)).willReturn(Optional.empty());
+
                 assertThatThrownBy(() -> productService.deleteProduct(givenProductInvalidId)).isInstanceOf(ProductNotFoundException.class);
 
-                verify(productRepository).findById(givenProductInvalidId);
+                verify(productRepository).softDeleteById(givenProductInvalidId, TenantContext.DEFAULT_TENANT);
             }
         }
     }
+
+    private ProductRow productRow(Product product) {
+        return new ProductRow() {
+            @Override
+            public Long getId() {
+                return product.getId();
+            }
+
+            @Override
+            public String getName() {
+                return product.getName();
+            }
+
+            @Override
+            public String getMaker() {
+                return product.getMaker();
+            }
+
+            @Override
+            public Integer getPrice() {
+                return product.getPrice();
+            }
+
+            @Override
+            public String getImage() {
+                return product.getImage();
+            }
+
+            @Override
+            public String getTenantId() {
+                return product.getTenantId();
+            }
+        };
+    }
 }
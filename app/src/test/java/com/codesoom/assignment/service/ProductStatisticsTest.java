@@ -0,0 +1,185 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.dto.ProductStats;
+import com.codesoom.assignment.event.ProductChangedEvent;
+import com.codesoom.assignment.repository.ProductRepository;
+import com.codesoom.assignment.tenant.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("ProductStatistics 클래스")
+class ProductStatisticsTest {
+
+    private ProductRepository productRepository;
+
+    private ProductStatistics productStatistics;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        productStatistics = new ProductStatistics(productRepository, 10000);
+    }
+
+    private Product product(String maker, Integer price) {
+        return Product.builder()
+                .name("테스트 제품")
+                .maker(maker)
+                .price(price)
+                .build();
+    }
+
+    private ProductRepository.TenantCount tenantCount(String tenant, long count) {
+        ProductRepository.TenantCount tenantCount = mock(ProductRepository.TenantCount.class);
+        given(tenantCount.getTenantId()).willReturn(tenant);
+        given(tenantCount.getCount()).willReturn(count);
+        return tenantCount;
+    }
+
+    private ProductRepository.MakerCount makerCount(String maker, long count) {
+        ProductRepository.MakerCount makerCount = mock(ProductRepository.MakerCount.class);
+        given(makerCount.getTenantId()).willReturn(TenantContext.DEFAULT_TENANT);
+        given(makerCount.getMaker()).willReturn(maker);
+        given(makerCount.getCount()).willReturn(count);
+        return makerCount;
+    }
+
+    private ProductRepository.PriceCount priceCount(int price, long count) {
+        ProductRepository.PriceCount priceCount = mock(ProductRepository.PriceCount.class);
+        given(priceCount.getTenantId()).willReturn(TenantContext.DEFAULT_TENANT);
+        given(priceCount.getPrice()).willReturn(price);
+        given(priceCount.getCount()).willReturn(count);
+        return priceCount;
+    }
+
+    @Nested
+    @DisplayName("rebuild 메소드는")
+    class Describe_rebuild {
+
+        @BeforeEach
+        void prepare() {
+            productStatistics.onProductChanged(
+                    new ProductChangedEvent(9L, ProductChangedEvent.Type.CREATED, null, product("이전 메이커", 1)));
+
+            List<ProductRepository.TenantCount> tenantCounts =
+                    List.of(tenantCount(TenantContext.DEFAULT_TENANT, 3), tenantCount("other", 4));
+            given(productRepository.countByTenant()).willReturn(tenantCounts);
+            given(productRepository.countByMaker()).willReturn(List.of(makerCount("메이커", 3)));
+            given(productRepository.countByPrice()).willReturn(List.of(priceCount(1000, 2), priceCount(25000, 1)));
+        }
+
+        @Test
+        @DisplayName("DB 집계로 통계를 다시 만든다.")
+        void it_rebuild_from_repository() {
+            productStatistics.rebuild();
+
+            ProductStats stats = productStatistics.getSummary();
+            assertThat(stats.getCount()).isEqualTo(3);
+            assertThat(stats.getMinPrice()).isEqualTo(1000);
+            assertThat(stats.getMaxPrice()).isEqualTo(25000);
+            assertThat(stats.getAveragePrice()).isEqualTo(9000.0);
+            assertThat(productStatistics.getMakerCounts()).containsExactly(entry("메이커", 3L));
+            assertThat(productStatistics.getPriceHistogram()).containsExactly(entry(0, 2L), entry(20000, 1L));
+        }
+
+        @Test
+        @DisplayName("현재 tenant의 통계만 보여준다.")
+        void it_separate_tenants() {
+            productStatistics.rebuild();
+
+            ProductStats stats = TenantContext.call("other", productStatistics::getSummary);
+            assertThat(stats.getCount()).isEqualTo(4);
+            assertThat(stats.getMinPrice()).isNull();
+            assertThat(TenantContext.call("unknown", productStatistics::getMakerCounts)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("모든 빈이 만들어지면 트래픽을 받기 전에 한 번 실행된다.")
+        void it_rebuild_before_traffic() {
+            productStatistics.afterSingletonsInstantiated();
+
+            assertThat(productStatistics.getSummary().getCount()).isEqualTo(3);
+        }
+    }
+
+    @Nested
+    @DisplayName("onProductChanged 메소드는")
+    class Describe_onProductChanged {
+
+        @Nested
+        @DisplayName("Product가 생성, 수정, 삭제되면")
+        class Context_with_changes {
+
+            @BeforeEach
+            void prepare() {
+                productStatistics.onProductChanged(
+                        new ProductChangedEvent(1L, ProductChangedEvent.Type.CREATED, null, product("A", 1000)));
+                productStatistics.onProductChanged(
+                        new ProductChangedEvent(2L, ProductChangedEvent.Type.CREATED, null, product("B", 3000)));
+                productStatistics.onProductChanged(
+                        new ProductChangedEvent(3L, ProductChangedEvent.Type.CREATED, null, product(null, null)));
+                productStatistics.onProductChanged(new ProductChangedEvent(2L, ProductChangedEvent.Type.UPDATED,
+                        product("B", 3000), product("B", 5000)));
+                productStatistics.onProductChanged(
+                        new ProductChangedEvent(1L, ProductChangedEvent.Type.DELETED, product("A", 1000), null));
+            }
+
+            @Test
+            @DisplayName("전후 값의 차이만큼 통계를 갱신한다.")
+            void it_apply_deltas() {
+                ProductStats stats = productStatistics.getSummary();
+
+                assertThat(stats.getCount()).isEqualTo(2);
+                assertThat(stats.getMinPrice()).isEqualTo(5000);
+                assertThat(stats.getMaxPrice()).isEqualTo(5000);
+                assertThat(stats.getAveragePrice()).isEqualTo(5000.0);
+                assertThat(productStatistics.getMakerCounts()).containsExactly(entry("B", 1L));
+                assertThat(productStatistics.getPriceHistogram()).containsExactly(entry(0, 1L));
+            }
+        }
+
+        @Nested
+        @DisplayName("다른 tenant의 Product가 변경되면")
+        class Context_with_other_tenant {
+
+            @Test
+            @DisplayName("해당 tenant의 통계만 갱신한다.")
+            void it_apply_to_tenant() {
+                Product product = product("A", 1000);
+                product.setTenantId("other");
+                productStatistics.onProductChanged(
+                        new ProductChangedEvent(1L, ProductChangedEvent.Type.CREATED, null, product));
+
+                assertThat(productStatistics.getSummary().getCount()).isZero();
+                assertThat(TenantContext.call("other", productStatistics::getMakerCounts))
+                        .containsExactly(entry("A", 1L));
+            }
+        }
+
+        @Nested
+        @DisplayName("전후 값이 없는 변경이라면")
+        class Context_without_values {
+
+            @Test
+            @DisplayName("통계를 바꾸지 않는다.")
+            void it_ignore_event() {
+                productStatistics.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.Type.DELETED));
+
+                ProductStats stats = productStatistics.getSummary();
+                assertThat(stats.getCount()).isZero();
+                assertThat(stats.getMinPrice()).isNull();
+                assertThat(stats.getMaxPrice()).isNull();
+                assertThat(stats.getAveragePrice()).isNull();
+            }
+        }
+    }
+}
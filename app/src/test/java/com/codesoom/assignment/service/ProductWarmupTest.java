@@ -0,0 +1,186 @@
+package com.codesoom.assignment.service;
+
+import com.codesoom.assignment.domain.Product;
+import com.codesoom.assignment.exception.ProductNotFoundException;
+import com.codesoom.assignment.repository.ProductRepository;
+import com.codesoom.assignment.tenant.TenantContext;
+import com.codesoom.assignment.tenant.TenantQuota;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("ProductWarmup 클래스")
+class ProductWarmupTest {
+
+    private ProductService productService;
+
+    private ProductRepository productRepository;
+
+    private ProductCatalogSnapshot catalogSnapshot;
+
+    private HotProductTracker hotProductTracker;
+
+    private PriceUpdateBuffer priceUpdateBuffer;
+
+    private PlatformTransactionManager transactionManager;
+
+    private ProductWarmup productWarmup;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        productRepository = mock(ProductRepository.class);
+        catalogSnapshot = mock(ProductCatalogSnapshot.class);
+        hotProductTracker = mock(HotProductTracker.class);
+        priceUpdateBuffer = mock(PriceUpdateBuffer.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        given(transactionManager.getTransaction(any())).willAnswer(invocation -> new SimpleTransactionStatus());
+
+        productWarmup = new ProductWarmup(productService, productRepository, catalogSnapshot, hotProductTracker,
+                priceUpdateBuffer, new TenantQuota(List.of(TenantContext.DEFAULT_TENANT, "a", "b"), 1, 0),
+                transactionManager, new ObjectMapper(), 3, 2, 1, 30000);
+    }
+
+    private ProductRepository.IdRange idRange(Long minId, Long maxId) {
+        ProductRepository.IdRange range = mock(ProductRepository.IdRange.class);
+        given(range.getMinId()).willReturn(minId);
+        given(range.getMaxId()).willReturn(maxId);
+        return range;
+    }
+
+    private Product product(Long id) {
+        Product product = Product.builder()
+                .name("테스트 제품 " + id)
+                .maker("테스트 메이커")
+                .price(1000)
+                .build();
+        product.setId(id);
+        return product;
+    }
+
+    @Nested
+    @DisplayName("hotIds 메소드는")
+    class Describe_hotIds {
+
+        @Test
+        @DisplayName("기록된 id가 있으면 그대로 리턴합니다.")
+        void it_return_recorded_ids() {
+            given(hotProductTracker.load()).willReturn(Map.of("a", List.of(9L, 4L)));
+
+            assertThat(productWarmup.hotIds()).containsExactly(entry("a", List.of(9L, 4L)));
+            verify(productRepository, never()).findIdRangeByTenantId(any());
+        }
+
+        @Test
+        @DisplayName("기록이 없으면 최근에 만든 id를 리턴합니다.")
+        void it_return_latest_ids() {
+            given(hotProductTracker.load()).willReturn(Collections.emptyMap());
+            given(productRepository.findIdRangeByTenantId(TenantContext.DEFAULT_TENANT))
+                    .willReturn(idRange(1L, 10L));
+
+            assertThat(productWarmup.hotIds())
+                    .containsExactly(entry(TenantContext.DEFAULT_TENANT, List.of(8L, 9L, 10L)));
+        }
+
+        @Test
+        @DisplayName("Product가 없으면 빈 목록을 리턴합니다.")
+        void it_return_empty_without_products() {
+            given(hotProductTracker.load()).willReturn(Collections.emptyMap());
+            given(productRepository.findIdRangeByTenantId(TenantContext.DEFAULT_TENANT))
+                    .willReturn(idRange(null, null));
+
+            assertThat(productWarmup.hotIds()).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("warmUp 메소드는")
+    class Describe_warmUp {
+
+        @BeforeEach
+        void prepare() {
+            given(hotProductTracker.load()).willReturn(Map.of(TenantContext.DEFAULT_TENANT, List.of(1L, 2L)));
+            given(productService.getProduct(1L)).willReturn(product(1L));
+            given(productService.getProduct(2L)).willThrow(new ProductNotFoundException(2L));
+        }
+
+        @Test
+        @DisplayName("hot id를 반복 조회하고 스냅샷을 만든 뒤 롤백되는 수정을 재현합니다.")
+        void it_replay_hot_products() {
+            assertThat(productWarmup.warmUp()).isEqualTo(2 * 2 + 1 + 1);
+
+            verify(productService, times(2)).getProduct(1L);
+            verify(catalogSnapshot).refresh();
+            verify(productService).updateProduct(eq(1L),
+                    argThat(source -> "테스트 제품 1".equals(source.getName()) && source.getPrice() == null));
+            verify(transactionManager).commit(argThat(status -> status.isRollbackOnly()));
+        }
+
+        @Test
+        @DisplayName("반영되지 않은 가격이 있는 Product는 수정하지 않습니다.")
+        void it_skip_pending_price() {
+            given(priceUpdateBuffer.pendingPrice(1L)).willReturn(2000);
+
+            productWarmup.warmUp();
+
+            verify(productService, never()).updateProduct(anyLong(), any(Product.class));
+        }
+
+        @Test
+        @DisplayName("tenant마다 해당 tenant로 조회하고 스냅샷을 만듭니다.")
+        void it_warm_up_each_tenant() {
+            List<String> tenants = new ArrayList<>();
+            given(productService.getProduct(3L)).will(invocation -> {
+                tenants.add(TenantContext.get());
+                return product(3L);
+            });
+            given(hotProductTracker.load()).willReturn(Map.of("a", List.of(3L), "b", List.of(3L)));
+
+            productWarmup.warmUp();
+
+            assertThat(tenants).containsOnly("a", "b").hasSize(2 * 2);
+            verify(catalogSnapshot, times(2)).refresh();
+            assertThat(TenantContext.get()).isNull();
+        }
+
+        @Test
+        @DisplayName("등록되지 않은 tenant의 기록은 건너뜁니다.")
+        void it_skip_unknown_tenant() {
+            given(hotProductTracker.load()).willReturn(Map.of("removed", List.of(1L)));
+
+            assertThat(productWarmup.warmUp()).isZero();
+
+            verify(productService, never()).getProduct(any());
+            verify(catalogSnapshot, never()).refresh();
+        }
+
+        @Test
+        @DisplayName("run 메소드로 실행됩니다.")
+        void it_run_as_application_runner() {
+            productWarmup.run(null);
+
+            verify(catalogSnapshot).refresh();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.codesoom.assignment.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("StorageCheckpoint 클래스")
+class StorageCheckpointTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private StorageCheckpoint storageCheckpoint;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        storageCheckpoint = new StorageCheckpoint(jdbcTemplate);
+    }
+
+    @Nested
+    @DisplayName("checkpoint 메소드는")
+    class Describe_checkpoint {
+
+        @Test
+        @DisplayName("지연 쓰기된 변경을 디스크에 내립니다.")
+        void it_checkpoint() {
+            storageCheckpoint.checkpoint();
+
+            verify(jdbcTemplate).execute("CHECKPOINT SYNC");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.codesoom.assignment.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("StorageMaintenance 클래스")
+class StorageMaintenanceTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private StorageMaintenance storageMaintenance;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        storageMaintenance = new StorageMaintenance(jdbcTemplate, directory.resolve("backup").toString(), 2);
+    }
+
+    @Nested
+    @DisplayName("backup 메소드는")
+    class Describe_backup {
+
+        @Test
+        @DisplayName("백업 디렉토리에 BACKUP TO를 실행합니다.")
+        void it_backup_to_directory() {
+            Path target = storageMaintenance.backup();
+
+            assertThat(target.getParent()).isEqualTo(directory.resolve("backup"));
+            assertThat(Files.isDirectory(target.getParent())).isTrue();
+            verify(jdbcTemplate).execute("BACKUP TO '" + target + "'");
+        }
+    }
+
+    @Nested
+    @DisplayName("prune 메소드는")
+    class Describe_prune {
+
+        @BeforeEach
+        void prepare() throws IOException {
+            Path backups = Files.createDirectories(directory.resolve("backup"));
+            for (String name : new String[]{"demo-20210101000000.zip", "demo-20210102000000.zip",
+                    "demo-20210103000000.zip", "other.zip"}) {
+                Files.createFile(backups.resolve(name));
+            }
+        }
+
+        @Test
+        @DisplayName("최근 백업만 retain 개 남기고 지웁니다.")
+        void it_keep_latest_backups() throws IOException {
+            assertThat(storageMaintenance.prune()).isEqualTo(1);
+
+            try (Stream<Path> files = Files.list(directory.resolve("backup"))) {
+                assertThat(files.map(file -> file.getFileName().toString()).collect(Collectors.toList()))
+                        .containsExactlyInAnyOrder("demo-20210102000000.zip", "demo-20210103000000.zip", "other.zip");
+            }
+        }
+    }
+}
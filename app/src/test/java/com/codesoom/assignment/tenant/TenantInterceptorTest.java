@@ -0,0 +1,92 @@
+package com.codesoom.assignment.tenant;
+
+import com.codesoom.assignment.exception.UnknownTenantException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TenantInterceptor 클래스")
+class TenantInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TenantInterceptor interceptor;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new TenantInterceptor(Set.of(TenantContext.DEFAULT_TENANT, "a"), meterRegistry);
+        request = new MockHttpServletRequest("GET", "/products");
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Nested
+    @DisplayName("등록된 tenant 헤더가 주어진다면")
+    class Context_with_known_tenant {
+
+        @BeforeEach
+        void prepare() {
+            request.addHeader(TenantInterceptor.TENANT_HEADER, "a");
+        }
+
+        @Test
+        @DisplayName("요청 동안 tenant를 지정하고, 끝나면 tenant별 처리 시간을 기록한다.")
+        void it_set_tenant_and_record() {
+            assertThat(interceptor.preHandle(request, response, null)).isTrue();
+            assertThat(TenantContext.get()).isEqualTo("a");
+
+            interceptor.afterCompletion(request, response, null, null);
+
+            assertThat(TenantContext.get()).isNull();
+            assertThat(meterRegistry.get("product.tenant.requests").tags("tenant", "a", "status", "200").timer()
+                    .count()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("tenant 헤더가 없다면")
+    class Context_without_header {
+
+        @Test
+        @DisplayName("기본 tenant로 처리한다.")
+        void it_use_default_tenant() {
+            interceptor.preHandle(request, response, null);
+
+            assertThat(TenantContext.get()).isEqualTo(TenantContext.DEFAULT_TENANT);
+        }
+    }
+
+    @Nested
+    @DisplayName("등록되지 않은 tenant 헤더가 주어진다면")
+    class Context_with_unknown_tenant {
+
+        @Test
+        @DisplayName("UnknownTenantException을 던진다.")
+        void it_throw_unknownTenantException() {
+            request.addHeader(TenantInterceptor.TENANT_HEADER, "b");
+
+            assertThatThrownBy(() -> interceptor.preHandle(request, response, null))
+                    .isInstanceOf(UnknownTenantException.class);
+            assertThat(TenantContext.get()).isNull();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.codesoom.assignment.tenant;
+
+import com.codesoom.assignment.exception.TenantQuotaExceededException;
+import com.codesoom.assignment.exception.UnknownTenantException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("TenantQuotaDataSource 클래스")
+class TenantQuotaDataSourceTest {
+
+    private DataSource target;
+
+    private Connection connection;
+
+    private TenantQuota tenantQuota;
+
+    private TenantQuotaDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        connection = mock(Connection.class);
+        given(target.getConnection()).willReturn(connection);
+        tenantQuota = new TenantQuota(List.of("a", "b"), 1, 0);
+        dataSource = new TenantQuotaDataSource(target, tenantQuota);
+    }
+
+    @Nested
+    @DisplayName("tenant가 지정된 요청이라면")
+    class Context_with_tenant {
+
+        @Test
+        @DisplayName("커넥션을 닫을 때까지 tenant의 한도를 차지한다.")
+        void it_hold_permit_until_close() throws Exception {
+            Connection acquired = TenantContext.call("a", this::getConnection);
+
+            assertThat(tenantQuota.active("a")).isEqualTo(1);
+
+            acquired.close();
+            acquired.close();
+
+            verify(connection).close();
+            assertThat(tenantQuota.active("a")).isZero();
+        }
+
+        @Test
+        @DisplayName("한도를 넘으면 TenantQuotaExceededException을 던지고, 다른 tenant는 막지 않는다.")
+        void it_reject_over_quota() {
+            TenantContext.call("a", this::getConnection);
+
+            assertThatThrownBy(() -> TenantContext.call("a", this::getConnection))
+                    .isInstanceOf(TenantQuotaExceededException.class);
+            assertThat(TenantContext.call("b", this::getConnection)).isNotNull();
+            assertThat(tenantQuota.rejected("a")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("사용자와 비밀번호를 주고 얻은 커넥션도 tenant의 한도를 차지한다.")
+        void it_hold_permit_with_credentials() throws Exception {
+            given(target.getConnection("user", "secret")).willReturn(connection);
+
+            Connection acquired = TenantContext.call("a", () -> {
+                try {
+                    return dataSource.getConnection("user", "secret");
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            assertThat(tenantQuota.active("a")).isEqualTo(1);
+            assertThatThrownBy(() -> TenantContext.call("a", this::getConnection))
+                    .isInstanceOf(TenantQuotaExceededException.class);
+
+            acquired.close();
+
+            assertThat(tenantQuota.active("a")).isZero();
+        }
+
+        @Test
+        @DisplayName("커넥션을 얻지 못하면 한도를 돌려준다.")
+        void it_release_permit_on_failure() throws SQLException {
+            given(target.getConnection()).willThrow(new SQLException("pool exhausted"));
+
+            assertThatThrownBy(() -> TenantContext.call("a", this::getConnection))
+                    .hasCauseInstanceOf(SQLException.class);
+            assertThat(tenantQuota.active("a")).isZero();
+        }
+
+        private Connection getConnection() {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("등록되지 않은 tenant의 작업이라면")
+    class Context_with_unknown_tenant {
+
+        @Test
+        @DisplayName("UnknownTenantException을 던지고 커넥션을 얻지 않는다.")
+        void it_reject_unknown_tenant() throws SQLException {
+            assertThatThrownBy(() -> TenantContext.call("unknown", () -> {
+                try {
+                    return dataSource.getConnection();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            })).isInstanceOf(UnknownTenantException.class);
+
+            verify(target, never()).getConnection();
+        }
+    }
+
+    @Nested
+    @DisplayName("tenant가 지정되지 않은 작업이라면")
+    class Context_without_tenant {
+
+        @Test
+        @DisplayName("한도 없이 커넥션을 리턴한다.")
+        void it_return_target_connection() throws SQLException {
+            assertThat(dataSource.getConnection()).isSameAs(connection);
+            assertThat(tenantQuota.active("a")).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("tenant별 사용 중인 커넥션과 거부 횟수를 메트릭으로 노출한다.")
+    void it_bind_metrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        tenantQuota.bindTo(meterRegistry);
+
+        assertThat(meterRegistry.get("product.tenant.connections.active").tag("tenant", "a").gauge().value())
+                .isZero();
+        assertThat(meterRegistry.get("product.tenant.connections.rejected").tag("tenant", "b").functionCounter()
+                .count()).isZero();
+    }
+}
@@ -0,0 +1,114 @@
+const fs = require('fs');
+const os = require('os');
+const path = require('path');
+const { spawn, spawnSync } = require('child_process');
+
+const { request } = require('./http');
+
+const APP_DIR = path.resolve(__dirname, '../../app');
+const GRADLEW = path.resolve(__dirname, '../../gradlew');
+
+const options = {
+  rows: Number(process.env.PERF_ROWS || 1000000),
+  port: Number(process.env.PERF_PORT || 8080),
+  runs: Number(process.env.PERF_RUNS || 3),
+  directory: process.env.PERF_STORAGE_DIRECTORY || path.join(os.tmpdir(), 'product-cold-start'),
+  output: process.env.PERF_OUTPUT || 'perf-reports',
+};
+
+const sleep = (ms) => new Promise((resolve) => setTimeout(resolve, ms));
+
+const gradle = (...args) => {
+  const result = spawnSync(GRADLEW, ['-p', path.dirname(APP_DIR), ...args], { stdio: 'inherit' });
+  if (result.status !== 0) {
+    throw new Error(`gradle ${args.join(' ')} failed`);
+  }
+};
+
+function seed() {
+  if (fs.existsSync(path.join(options.directory, 'demo.mv.db'))) {
+    return;
+  }
+  fs.mkdirSync(options.directory, { recursive: true });
+  const url = `jdbc:h2:file:${path.join(options.directory, 'demo')}`;
+  gradle(':app:seedBenchmarkDatabase', `-PbenchmarkUrl=${url}`, `-PbenchmarkRows=${options.rows}`);
+}
+
+function bootJar() {
+  gradle(':app:bootJar');
+  const libs = path.join(APP_DIR, 'build/libs');
+  return path.join(libs, fs.readdirSync(libs).find((name) => name.endsWith('.jar') && !name.endsWith('-plain.jar')));
+}
+
+async function timed(baseUrl, urlPath) {
+  const response = await request(baseUrl, 'GET', urlPath);
+  return { status: response.status, latency: Math.round(response.latency * 100) / 100 };
+}
+
+async function coldStart(jar) {
+  const baseUrl = `http://localhost:${options.port}`;
+  const startedAt = Date.now();
+  const app = spawn('java', ['-jar', jar,
+    '--spring.profiles.active=production',
+    `--server.port=${options.port}`,
+    `--product.storage.directory=${options.directory}`,
+    '--product.storage.backup.enabled=false',
+  ], { stdio: 'ignore' });
+
+  try {
+    /* eslint-disable no-await-in-loop */
+    for (;;) {
+      try {
+        // 워밍업이 끝나야 readiness가 UP이 됩니다.
+        const readiness = await request(baseUrl, 'GET', '/actuator/health/readiness');
+        if (readiness.status === 200) {
+          break;
+        }
+      } catch (e) {
+        // 아직 포트가 열리지 않았습니다.
+      }
+      if (app.exitCode !== null) {
+        throw new Error(`application exited with ${app.exitCode}`);
+      }
+      await sleep(50);
+    }
+    /* eslint-enable no-await-in-loop */
+
+    const readyMillis = Date.now() - startedAt;
+    const firstDetail = await timed(baseUrl, `/products/${Math.ceil(options.rows / 2)}`);
+    const secondDetail = await timed(baseUrl, `/products/${Math.ceil(options.rows / 3)}`);
+    const firstStats = await timed(baseUrl, '/products/stats');
+
+    return {
+      readyMillis, firstDetail, secondDetail, firstStats,
+    };
+  } finally {
+    app.kill();
+    await new Promise((resolve) => app.once('exit', resolve));
+  }
+}
+
+async function main() {
+  seed();
+  const jar = bootJar();
+
+  const runs = [];
+  /* eslint-disable no-await-in-loop */
+  while (runs.length < options.runs) {
+    const run = await coldStart(jar);
+    console.log(`run ${runs.length + 1}: ready ${run.readyMillis} ms, first detail ${run.firstDetail.latency} ms`);
+    runs.push(run);
+  }
+  /* eslint-enable no-await-in-loop */
+
+  const report = { startedAt: new Date().toISOString(), options, runs };
+  fs.mkdirSync(options.output, { recursive: true });
+  const file = path.join(options.output, `cold-start-${Date.now()}.json`);
+  fs.writeFileSync(file, JSON.stringify(report, null, 2));
+  console.log(`report: ${file}`);
+}
+
+main().catch((e) => {
+  console.error(e);
+  process.exitCode = 1;
+});
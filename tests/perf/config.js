@@ -0,0 +1,72 @@
+const DEFAULTS = {
+  baseUrl: 'http://localhost:8080',
+  durationSeconds: 60,
+  warmupSeconds: 10,
+  concurrency: 16,
+  seedProducts: 100,
+  mix: 'list:20,detail:60,create:5,update:10,delete:5',
+  soak: false,
+  soakDurationSeconds: 3600,
+  sampleIntervalSeconds: 15,
+  output: 'perf-reports',
+  baseline: null,
+  tolerance: 0.1,
+};
+
+const NUMBER_KEYS = Object.keys(DEFAULTS).filter((key) => typeof DEFAULTS[key] === 'number');
+
+const toEnvName = (key) => `PERF_${key.replace(/[A-Z]/g, (c) => `_${c}`).toUpperCase()}`;
+
+const toCamelCase = (name) => name.replace(/-([a-z])/g, (_, c) => c.toUpperCase());
+
+function parseValue(key, value) {
+  if (NUMBER_KEYS.includes(key)) {
+    return Number(value);
+  }
+  if (key === 'soak') {
+    return value === true || value === 'true';
+  }
+  return value;
+}
+
+function parseConfig(argv = process.argv.slice(2), env = process.env) {
+  const config = { ...DEFAULTS };
+
+  Object.keys(DEFAULTS).forEach((key) => {
+    const value = env[toEnvName(key)];
+    if (value !== undefined) {
+      config[key] = parseValue(key, value);
+    }
+  });
+
+  argv.filter((arg) => arg.startsWith('--')).forEach((arg) => {
+    const [name, ...rest] = arg.slice(2).split('=');
+    const key = toCamelCase(name);
+    if (key in DEFAULTS) {
+      config[key] = parseValue(key, rest.length ? rest.join('=') : true);
+    }
+  });
+
+  if (config.soak && !argv.some((arg) => arg.startsWith('--duration-seconds'))
+    && env[toEnvName('durationSeconds')] === undefined) {
+    config.durationSeconds = config.soakDurationSeconds;
+  }
+
+  return config;
+}
+
+function parseMix(mix) {
+  const operations = mix.split(',').map((entry) => {
+    const [name, weight] = entry.split(':');
+    return { name: name.trim(), weight: Number(weight) };
+  }).filter(({ weight }) => weight > 0);
+
+  const total = operations.reduce((sum, { weight }) => sum + weight, 0);
+  let cumulative = 0;
+  return operations.map(({ name, weight }) => {
+    cumulative += weight / total;
+    return { name, threshold: cumulative };
+  });
+}
+
+module.exports = { DEFAULTS, parseConfig, parseMix };
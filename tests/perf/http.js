@@ -0,0 +1,38 @@
+const http = require('http');
+
+const agent = new http.Agent({ keepAlive: true, maxSockets: 256 });
+
+function request(baseUrl, method, path, body) {
+  const url = new URL(path, baseUrl);
+  const payload = body === undefined ? null : Buffer.from(JSON.stringify(body));
+
+  return new Promise((resolve, reject) => {
+    const startedAt = process.hrtime.bigint();
+    const req = http.request(url, {
+      method,
+      agent,
+      headers: payload ? {
+        'Content-Type': 'application/json',
+        'Content-Length': payload.length,
+      } : {},
+    }, (res) => {
+      const chunks = [];
+      res.on('data', (chunk) => chunks.push(chunk));
+      res.on('end', () => {
+        const text = Buffer.concat(chunks).toString('utf8');
+        resolve({
+          status: res.statusCode,
+          latency: Number(process.hrtime.bigint() - startedAt) / 1e6,
+          json: () => (text ? JSON.parse(text) : null),
+        });
+      });
+    });
+    req.on('error', reject);
+    if (payload) {
+      req.write(payload);
+    }
+    req.end();
+  });
+}
+
+module.exports = { request };
@@ -0,0 +1,107 @@
+const fs = require('fs');
+const path = require('path');
+
+const { parseConfig, parseMix } = require('./config');
+const { summarize, compare } = require('./stats');
+const { Workload } = require('./workload');
+const { SoakMonitor } = require('./soak');
+
+const pick = (mix) => {
+  const random = Math.random();
+  return (mix.find(({ threshold }) => random < threshold) || mix[mix.length - 1]).name;
+};
+
+async function drive(workload, mix, concurrency, durationSeconds, record) {
+  const deadline = Date.now() + durationSeconds * 1000;
+
+  const worker = async () => {
+    /* eslint-disable no-await-in-loop */
+    while (Date.now() < deadline) {
+      const operation = pick(mix);
+      try {
+        const response = await workload.run(operation);
+        record(operation, response.latency, response.status >= 400);
+      } catch (e) {
+        record(operation, null, true);
+      }
+    }
+    /* eslint-enable no-await-in-loop */
+  };
+
+  await Promise.all(Array.from({ length: concurrency }, worker));
+}
+
+async function main() {
+  const config = parseConfig();
+  const mix = parseMix(config.mix);
+  const workload = new Workload(config.baseUrl);
+
+  await workload.seed(config.seedProducts);
+
+  console.log(`warm-up ${config.warmupSeconds}s`);
+  await drive(workload, mix, config.concurrency, config.warmupSeconds, () => {});
+
+  const latencies = {};
+  const errors = {};
+  const record = (operation, latency, failed) => {
+    latencies[operation] = latencies[operation] || [];
+    errors[operation] = (errors[operation] || 0) + (failed ? 1 : 0);
+    if (latency !== null && !failed) {
+      latencies[operation].push(latency);
+    }
+  };
+
+  const monitor = config.soak ? new SoakMonitor(config.baseUrl, config.sampleIntervalSeconds) : null;
+  if (monitor) {
+    await monitor.start();
+  }
+
+  console.log(`${config.soak ? 'soak' : 'load'} ${config.durationSeconds}s with ${config.concurrency} workers`);
+  const startedAt = Date.now();
+  await drive(workload, mix, config.concurrency, config.durationSeconds, record);
+  const elapsedSeconds = (Date.now() - startedAt) / 1000;
+
+  await workload.cleanup();
+
+  const operations = {};
+  Object.keys(latencies).forEach((operation) => {
+    operations[operation] = summarize(latencies[operation], errors[operation], elapsedSeconds);
+  });
+
+  const report = {
+    startedAt: new Date(startedAt).toISOString(),
+    config,
+    operations,
+    soak: monitor ? await monitor.stop() : null,
+  };
+
+  fs.mkdirSync(config.output, { recursive: true });
+  const file = path.join(config.output, `${config.soak ? 'soak' : 'load'}-${startedAt}.json`);
+  fs.writeFileSync(file, JSON.stringify(report, null, 2));
+
+  console.table(operations);
+  if (report.soak) {
+    const { samples, idle, ...soak } = report.soak;
+    console.table(soak);
+  }
+  console.log(`report: ${file}`);
+
+  const failures = [];
+  if (config.baseline) {
+    const baseline = JSON.parse(fs.readFileSync(config.baseline, 'utf8'));
+    failures.push(...compare(report, baseline, config.tolerance));
+  }
+  if (report.soak && report.soak.suspectedConnectionLeak) {
+    failures.push({ operation: 'soak', metric: 'activeConnections', current: report.soak.idle.activeConnections });
+  }
+
+  if (failures.length) {
+    console.table(failures);
+    process.exitCode = 1;
+  }
+}
+
+main().catch((e) => {
+  console.error(e);
+  process.exitCode = 1;
+});
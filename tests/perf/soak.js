@@ -0,0 +1,88 @@
+const { request } = require('./http');
+const { slope } = require('./stats');
+
+const METRICS = {
+  heapUsed: '/actuator/metrics/jvm.memory.used?tag=area:heap',
+  gcPause: '/actuator/metrics/jvm.gc.pause',
+  activeConnections: '/actuator/metrics/hikaricp.connections.active',
+  pendingConnections: '/actuator/metrics/hikaricp.connections.pending',
+};
+
+const measurement = (json, statistic) => {
+  const found = (json?.measurements || []).find((m) => m.statistic === statistic);
+  return found ? found.value : null;
+};
+
+async function fetchMetric(baseUrl, path) {
+  try {
+    const response = await request(baseUrl, 'GET', path);
+    return response.status === 200 ? response.json() : null;
+  } catch (e) {
+    return null;
+  }
+}
+
+async function sample(baseUrl) {
+  const [heap, gc, active, pending] = await Promise.all(
+    Object.values(METRICS).map((path) => fetchMetric(baseUrl, path)),
+  );
+
+  return {
+    at: Date.now(),
+    heapUsedMb: heap ? measurement(heap, 'VALUE') / (1024 * 1024) : null,
+    gcCount: measurement(gc, 'COUNT'),
+    gcTotalSeconds: measurement(gc, 'TOTAL_TIME'),
+    gcMaxSeconds: measurement(gc, 'MAX'),
+    activeConnections: measurement(active, 'VALUE'),
+    pendingConnections: measurement(pending, 'VALUE'),
+  };
+}
+
+class SoakMonitor {
+  constructor(baseUrl, intervalSeconds) {
+    this.baseUrl = baseUrl;
+    this.intervalSeconds = intervalSeconds;
+    this.samples = [];
+    this.timer = null;
+  }
+
+  async start() {
+    const first = await sample(this.baseUrl);
+    if (first.heapUsedMb === null) {
+      throw new Error('/actuator/metrics is not exposed. Run the server with --spring.profiles.active=perf');
+    }
+    this.samples.push(first);
+    this.timer = setInterval(async () => {
+      this.samples.push(await sample(this.baseUrl));
+    }, this.intervalSeconds * 1000);
+  }
+
+  async stop() {
+    clearInterval(this.timer);
+    // 부하가 끝난 뒤에도 사용 중인 커넥션이 남아 있으면 누수를 의심합니다.
+    await new Promise((resolve) => setTimeout(resolve, this.intervalSeconds * 1000));
+    const idle = await sample(this.baseUrl);
+    return this.report(idle);
+  }
+
+  report(idle) {
+    const first = this.samples[0];
+    const last = this.samples[this.samples.length - 1];
+    const heapPoints = this.samples
+      .filter((s) => s.heapUsedMb !== null)
+      .map((s) => [(s.at - first.at) / 60000, s.heapUsedMb]);
+
+    return {
+      samples: this.samples,
+      idle,
+      heapGrowthMbPerMinute: Math.round(slope(heapPoints) * 100) / 100,
+      gcPauses: last.gcCount - first.gcCount,
+      gcPauseTotalSeconds: last.gcTotalSeconds - first.gcTotalSeconds,
+      gcPauseMaxSeconds: Math.max(...this.samples.map((s) => s.gcMaxSeconds || 0)),
+      maxPendingConnections: Math.max(...this.samples.map((s) => s.pendingConnections || 0)),
+      suspectedConnectionLeak: (idle.activeConnections || 0) > 0,
+    };
+  }
+}
+
+module.exports = { SoakMonitor };
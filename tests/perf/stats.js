@@ -0,0 +1,61 @@
+function percentile(sorted, p) {
+  if (sorted.length === 0) {
+    return null;
+  }
+  const index = Math.min(sorted.length - 1, Math.ceil((p / 100) * sorted.length) - 1);
+  return sorted[Math.max(index, 0)];
+}
+
+const round = (value) => (value === null ? null : Math.round(value * 100) / 100);
+
+function summarize(samples, errors, elapsedSeconds) {
+  const sorted = [...samples].sort((a, b) => a - b);
+  const total = sorted.reduce((sum, value) => sum + value, 0);
+
+  return {
+    count: sorted.length,
+    errors,
+    throughput: round(sorted.length / elapsedSeconds),
+    mean: round(sorted.length ? total / sorted.length : null),
+    p50: round(percentile(sorted, 50)),
+    p95: round(percentile(sorted, 95)),
+    p99: round(percentile(sorted, 99)),
+    max: round(sorted.length ? sorted[sorted.length - 1] : null),
+  };
+}
+
+function slope(points) {
+  if (points.length < 2) {
+    return 0;
+  }
+  const n = points.length;
+  const meanX = points.reduce((sum, [x]) => sum + x, 0) / n;
+  const meanY = points.reduce((sum, [, y]) => sum + y, 0) / n;
+  const numerator = points.reduce((sum, [x, y]) => sum + (x - meanX) * (y - meanY), 0);
+  const denominator = points.reduce((sum, [x]) => sum + (x - meanX) ** 2, 0);
+  return denominator === 0 ? 0 : numerator / denominator;
+}
+
+function compare(report, baseline, tolerance) {
+  return Object.keys(report.operations)
+    .filter((name) => baseline.operations[name])
+    .flatMap((name) => {
+      const current = report.operations[name];
+      const previous = baseline.operations[name];
+      const checks = [
+        { metric: 'p95', worse: (a, b) => a > b * (1 + tolerance) },
+        { metric: 'p99', worse: (a, b) => a > b * (1 + tolerance) },
+        { metric: 'throughput', worse: (a, b) => a < b * (1 - tolerance) },
+      ];
+      return checks
+        .filter(({ metric }) => current[metric] !== null && previous[metric] !== null)
+        .filter(({ metric, worse }) => worse(current[metric], previous[metric]))
+        .map(({ metric }) => ({
+          operation: name, metric, baseline: previous[metric], current: current[metric],
+        }));
+    });
+}
+
+module.exports = {
+  percentile, summarize, slope, compare,
+};
@@ -0,0 +1,61 @@
+import { parseConfig, parseMix } from './config';
+import {
+  percentile, summarize, slope, compare,
+} from './stats';
+
+describe('perf', () => {
+  describe('parseConfig', () => {
+    it('reads environment variables and arguments', () => {
+      const config = parseConfig(['--concurrency=4', '--mix=detail:1'], { PERF_DURATION_SECONDS: '5' });
+
+      expect(config.concurrency).toBe(4);
+      expect(config.durationSeconds).toBe(5);
+      expect(config.mix).toBe('detail:1');
+    });
+
+    it('uses soak duration in soak mode', () => {
+      const config = parseConfig(['--soak'], {});
+
+      expect(config.soak).toBe(true);
+      expect(config.durationSeconds).toBe(config.soakDurationSeconds);
+    });
+  });
+
+  describe('parseMix', () => {
+    it('returns cumulative thresholds', () => {
+      expect(parseMix('list:1,detail:3,delete:0')).toEqual([
+        { name: 'list', threshold: 0.25 },
+        { name: 'detail', threshold: 1 },
+      ]);
+    });
+  });
+
+  describe('summarize', () => {
+    it('returns percentiles and throughput', () => {
+      const samples = Array.from({ length: 100 }, (_, i) => i + 1);
+
+      expect(percentile(samples, 95)).toBe(95);
+      expect(summarize(samples, 2, 10)).toMatchObject({
+        count: 100, errors: 2, throughput: 10, p50: 50, p99: 99, max: 100,
+      });
+    });
+  });
+
+  describe('slope', () => {
+    it('returns growth per unit', () => {
+      expect(slope([[0, 100], [1, 110], [2, 120]])).toBe(10);
+      expect(slope([[0, 100]])).toBe(0);
+    });
+  });
+
+  describe('compare', () => {
+    const baseline = { operations: { detail: { p95: 10, p99: 20, throughput: 100 } } };
+
+    it('reports metrics worse than tolerance', () => {
+      const report = { operations: { detail: { p95: 12, p99: 21, throughput: 80 } } };
+
+      expect(compare(report, baseline, 0.1).map(({ metric }) => metric))
+        .toEqual(['p95', 'throughput']);
+    });
+  });
+});
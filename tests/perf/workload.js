@@ -0,0 +1,78 @@
+const { request } = require('./http');
+
+const toy = (index) => ({
+  name: `성능 테스트 장난감 ${index}`,
+  maker: `메이커 ${index % 10}`,
+  price: 1000 + (index % 100) * 100,
+  image: `http://localhost:8080/perf/${index}`,
+});
+
+class Workload {
+  constructor(baseUrl) {
+    this.baseUrl = baseUrl;
+    this.ids = [];
+    this.seeded = [];
+    this.created = [];
+    this.sequence = 0;
+  }
+
+  async seed(count) {
+    await Promise.all(Array.from({ length: count }, () => this.create(this.seeded)));
+  }
+
+  randomId() {
+    return this.ids[Math.floor(Math.random() * this.ids.length)];
+  }
+
+  async create(owner = this.created) {
+    this.sequence += 1;
+    const response = await request(this.baseUrl, 'POST', '/products', toy(this.sequence));
+    if (response.status === 201) {
+      const { id } = response.json();
+      this.ids.push(id);
+      owner.push(id);
+    }
+    return response;
+  }
+
+  async run(operation) {
+    switch (operation) {
+      case 'list':
+        return request(this.baseUrl, 'GET', '/products');
+      case 'detail':
+        // 읽을 Product가 없으면 /products/undefined를 요청하지 않고 하나를 만듭니다.
+        if (this.ids.length === 0) {
+          return this.create();
+        }
+        return request(this.baseUrl, 'GET', `/products/${this.randomId()}`);
+      case 'create':
+        return this.create();
+      case 'update':
+        if (this.ids.length === 0) {
+          return this.create();
+        }
+        return request(this.baseUrl, 'PATCH', `/products/${this.randomId()}`, {
+          price: 1000 + Math.floor(Math.random() * 100000),
+        });
+      case 'delete': {
+        // 부하 중에 만든 Product만 지워서, 시드한 Product는 끝까지 읽기 대상으로 남기고 카탈로그 크기를 일정하게 유지합니다.
+        const id = this.created.pop();
+        if (id === undefined) {
+          return this.create();
+        }
+        this.ids = this.ids.filter((value) => value !== id);
+        return request(this.baseUrl, 'DELETE', `/products/${id}`);
+      }
+      default:
+        throw new Error(`Unknown operation: ${operation}`);
+    }
+  }
+
+  async cleanup() {
+    const ids = [...this.seeded.splice(0), ...this.created.splice(0)];
+    this.ids = [];
+    await Promise.all(ids.map((id) => request(this.baseUrl, 'DELETE', `/products/${id}`)));
+  }
+}
+
+module.exports = { Workload };